@@ -0,0 +1,75 @@
+package com.github.ashim.json.benchmark;
+
+import java.util.List;
+
+import com.github.ashim.json.annotations.JsonId;
+import com.github.ashim.json.annotations.JsonRelation;
+import com.github.ashim.json.annotations.JsonType;
+
+/**
+ * Benchmark resource with up to {@value #MAX_ATTRIBUTES} attributes. Unset
+ * attributes are neither written nor present in generated documents.
+ *
+ * @author Ashim Jung Khadka
+ */
+@JsonType("articles")
+public class Article {
+
+	public static final int MAX_ATTRIBUTES = 32;
+
+	@JsonId
+	private Integer id;
+
+	public String attribute01;
+	public String attribute02;
+	public String attribute03;
+	public String attribute04;
+	public String attribute05;
+	public String attribute06;
+	public String attribute07;
+	public String attribute08;
+	public String attribute09;
+	public String attribute10;
+	public String attribute11;
+	public String attribute12;
+	public String attribute13;
+	public String attribute14;
+	public String attribute15;
+	public String attribute16;
+	public String attribute17;
+	public String attribute18;
+	public String attribute19;
+	public String attribute20;
+	public String attribute21;
+	public String attribute22;
+	public String attribute23;
+	public String attribute24;
+	public String attribute25;
+	public String attribute26;
+	public String attribute27;
+	public String attribute28;
+	public String attribute29;
+	public String attribute30;
+	public String attribute31;
+	public String attribute32;
+
+	@JsonRelation(value = "tags", included = true)
+	private List<Tag> tags;
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public List<Tag> getTags() {
+		return tags;
+	}
+
+	public void setTags(List<Tag> tags) {
+		this.tags = tags;
+	}
+
+}
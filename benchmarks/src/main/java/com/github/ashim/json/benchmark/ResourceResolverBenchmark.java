@@ -0,0 +1,138 @@
+package com.github.ashim.json.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ashim.json.parser.FieldSet;
+import com.github.ashim.json.parser.Include;
+import com.github.ashim.json.parser.ResourceResolver;
+
+/**
+ * Throughput of reading and writing single and collection documents. <br />
+ *
+ * Documents are generated from parameters: number of primary resources,
+ * attributes per resource, linkages per resource and size of the 'included'
+ * section. Linkages reference a pool of <code>includedSize</code> distinct
+ * resources, all of them written to 'included'. With an included size of
+ * <code>0</code> linkages reference <code>fanOut</code> resources which are
+ * not included, documents then carry linkages only. <br />
+ *
+ * Combinations without a document, i.e. an included section without linkages
+ * or one larger than all linkages reference, fail in setup. JMH reports them
+ * as errors and carries on with the next combination, restrict parameters
+ * with <code>-p</code> to leave them out. Run with <code>-prof gc</code> to
+ * report bytes allocated per operation.
+ *
+ * @author Ashim Jung Khadka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceResolverBenchmark {
+
+	@Param({ "10", "1000" })
+	private int size;
+
+	@Param({ "4", "32" })
+	private int attributes;
+
+	@Param({ "0", "1", "8" })
+	private int fanOut;
+
+	@Param({ "0", "8", "80" })
+	private int includedSize;
+
+	private ResourceResolver resolver;
+	private Include include;
+	private Article article;
+	private List<Article> articles;
+	private byte[] document;
+	private byte[] collectionDocument;
+	private ByteArrayOutputStream output;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		resolver = new ResourceResolver(Article.class, Tag.class);
+
+		if (includedSize > size * fanOut || (includedSize > 0 && includedSize < fanOut)) {
+			throw new IllegalArgumentException("Skipped: included size " + includedSize + " does not fit fan-out "
+					+ fanOut + " of " + size + " resources");
+		}
+
+		// Relationships are included by their annotation, unless nothing is
+		include = includedSize > 0 ? Include.DEFAULT : Include.parse("");
+		int pool = includedSize > 0 ? includedSize : fanOut;
+
+		List<Tag> tags = new ArrayList<>();
+		for (int i = 0; i < pool; i++) {
+			Tag tag = new Tag();
+			tag.setId(i);
+			tag.setName("tag" + i);
+			tags.add(tag);
+		}
+
+		articles = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			Article element = new Article();
+			element.setId(i);
+
+			for (int j = 1; j <= attributes; j++) {
+				Article.class.getField(String.format("attribute%02d", j)).set(element, "value " + i + "/" + j);
+			}
+
+			List<Tag> elementTags = new ArrayList<>();
+			for (int j = 0; j < fanOut; j++) {
+				elementTags.add(tags.get((i * fanOut + j) % pool));
+			}
+			element.setTags(elementTags);
+
+			articles.add(element);
+		}
+
+		article = articles.get(0);
+		document = resolver.writeJson(article, include, FieldSet.ALL).getBytes();
+		collectionDocument = resolver.writeJsonCollection(articles, include, FieldSet.ALL).getBytes();
+		output = new ByteArrayOutputStream(collectionDocument.length);
+	}
+
+	@Benchmark
+	public Article readJson() {
+		return resolver.readJson(document, Article.class);
+	}
+
+	@Benchmark
+	public List<Article> readJsonCollection() {
+		return resolver.readJsonCollection(collectionDocument, Article.class);
+	}
+
+	@Benchmark
+	public int writeJson() {
+		output.reset();
+		resolver.writeJson(article, output, include, FieldSet.ALL);
+		return output.size();
+	}
+
+	@Benchmark
+	public int writeJsonCollection() {
+		output.reset();
+		resolver.writeJsonCollection(articles, output, include, FieldSet.ALL);
+		return output.size();
+	}
+}
@@ -0,0 +1,34 @@
+package com.github.ashim.json.benchmark;
+
+import com.github.ashim.json.annotations.JsonId;
+import com.github.ashim.json.annotations.JsonType;
+
+/**
+ * Benchmark resource referenced by articles.
+ *
+ * @author Ashim Jung Khadka
+ */
+@JsonType("tags")
+public class Tag {
+
+	@JsonId
+	private Integer id;
+	private String name;
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+}
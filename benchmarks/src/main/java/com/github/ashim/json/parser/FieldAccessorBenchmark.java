@@ -0,0 +1,83 @@
+package com.github.ashim.json.parser;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.ashim.json.benchmark.Article;
+
+/**
+ * Cost of reading and writing a private resource field through reflection,
+ * through {@link FieldAccessor} holding its handles in constant slots and
+ * through the accessor fallback holding them in instance fields. <br />
+ *
+ * Lives in the parser package, since accessors are package-private.
+ *
+ * @author Ashim Jung Khadka
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldAccessorBenchmark {
+
+	private Field field;
+	private FieldAccessor constant;
+	private FieldAccessor fallback;
+	private Article article;
+	private Integer id;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		field = Article.class.getDeclaredField("id");
+		field.setAccessible(true);
+		constant = FieldAccessor.create(field);
+		fallback = FieldAccessor.createFallback(field);
+
+		article = new Article();
+		id = 42;
+		field.set(article, id);
+	}
+
+	@Benchmark
+	public Object reflectionGet() throws IllegalAccessException {
+		return field.get(article);
+	}
+
+	@Benchmark
+	public void reflectionSet() throws IllegalAccessException {
+		field.set(article, id);
+	}
+
+	@Benchmark
+	public Object constantGet() {
+		return constant.get(article);
+	}
+
+	@Benchmark
+	public void constantSet() {
+		constant.set(article, id);
+	}
+
+	@Benchmark
+	public Object fallbackGet() {
+		return fallback.get(article);
+	}
+
+	@Benchmark
+	public void fallbackSet() {
+		fallback.set(article, id);
+	}
+}
@@ -0,0 +1,491 @@
+package com.github.ashim.json.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import com.github.ashim.json.annotations.JsonId;
+import com.github.ashim.json.annotations.JsonRelation;
+import com.github.ashim.json.annotations.JsonType;
+import com.github.ashim.json.annotations.JsonVersion;
+import com.github.ashim.json.codec.ResourceCodec;
+
+/**
+ * Generates a {@link ResourceCodec} for every JsonType class. <br />
+ *
+ * Codecs are generated next to their resource class and access id, version
+ * and relationship fields directly, or through bean accessors of the field's
+ * exact type in case fields are private. Attributes are not generated, they
+ * are left to Jackson, see {@link ResourceCodec}. Classes a codec cannot be
+ * generated for, e.g. private classes or private fields without accessors,
+ * are reported with a warning and left to reflection at runtime. <br />
+ *
+ * Once processing is over, generated codecs are registered as
+ * {@link java.util.ServiceLoader} services and binary names of all JsonType
+ * classes are written to {@link ResourceCodec#INDEX}, so that resolvers can be
+ * created without listing classes by hand. Entries left by a previous
+ * incremental compilation are kept as long as their classes still exist.
+ * Member annotations are claimed along with JsonType, they are only read
+ * from the classes they belong to.
+ *
+ * @author Ashim Jung Khadka
+ */
+@SupportedAnnotationTypes({ "com.github.ashim.json.annotations.JsonType", "com.github.ashim.json.annotations.JsonId",
+		"com.github.ashim.json.annotations.JsonVersion", "com.github.ashim.json.annotations.JsonRelation" })
+public class JsonTypeProcessor extends AbstractProcessor {
+
+	private static final String CODEC = "com.github.ashim.json.codec.ResourceCodec";
+	private static final String RELATIONSHIP_CODEC = "com.github.ashim.json.codec.RelationshipCodec";
+	private static final String SERVICES = "META-INF/services/" + CODEC;
+
+	private final Set<String> index = new TreeSet<>();
+	private final Set<String> codecs = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeIndex();
+			return true;
+		}
+
+		for (Element element : roundEnv.getElementsAnnotatedWith(JsonType.class)) {
+			if (element.getKind() != ElementKind.CLASS) {
+				error(element, "JsonType can only be placed on classes!");
+				continue;
+			}
+
+			TypeElement type = (TypeElement) element;
+
+			try {
+				String skipped = getUnsupportedReason(type);
+
+				if (skipped == null) {
+					skipped = writeCodec(type);
+				}
+
+				if (skipped != null) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+							"No codec generated, " + skipped, type);
+				}
+
+				index.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+			} catch (IllegalArgumentException e) {
+				error(type, e.getMessage());
+			} catch (IOException e) {
+				error(type, "Codec cannot be written: " + e.getMessage());
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks whether generated codec can instantiate provided class.
+	 *
+	 * @return reason why class is not supported or <code>null</code> in case
+	 *         it is
+	 */
+	private String getUnsupportedReason(TypeElement type) {
+		for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+			if (element.getModifiers().contains(Modifier.PRIVATE)) {
+				return "class is private";
+			}
+
+			if (((TypeElement) element).getNestingKind() == NestingKind.MEMBER
+					&& !element.getModifiers().contains(Modifier.STATIC)) {
+				return "inner class is not static";
+			}
+		}
+
+		if (type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()) {
+			return "class is abstract or generic";
+		}
+
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+				return null;
+			}
+		}
+
+		return "class has no accessible no-arg constructor";
+	}
+
+	/**
+	 * Writes codec of provided class.
+	 *
+	 * @return reason why codec was not written or <code>null</code> in case it
+	 *         was
+	 * @throws IllegalArgumentException
+	 *             in case class is not a valid resource class
+	 */
+	private String writeCodec(TypeElement type) throws IOException {
+		String typeName = type.getQualifiedName().toString();
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String codecName = binaryName.substring(binaryName.lastIndexOf('.') + 1).replace('$', '_')
+				+ ResourceCodec.SUFFIX;
+
+		VariableElement idField = null;
+		VariableElement versionField = null;
+		List<String> relationships = new ArrayList<>();
+
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			if (idField == null && field.getAnnotation(JsonId.class) != null) {
+				idField = field;
+			}
+
+			if (versionField == null && field.getAnnotation(JsonVersion.class) != null) {
+				versionField = field;
+			}
+
+			JsonRelation relation = field.getAnnotation(JsonRelation.class);
+
+			if (relation != null) {
+				String relationship = relationship(type, field, relation);
+
+				if (relationship == null) {
+					return inaccessible(field);
+				}
+
+				relationships.add(relationship);
+			}
+		}
+
+		if (idField == null) {
+			throw new IllegalArgumentException(
+					"All resource classes must have a field annotated with the @JsonId annotation");
+		}
+
+		String idGetter = getter(type, idField);
+		String idSetter = setter(type, idField, "(" + idType(idField) + ") id");
+
+		if (idGetter == null || idSetter == null) {
+			return inaccessible(idField);
+		}
+
+		String versionGetter = null;
+		String versionSetter = null;
+
+		if (versionField != null) {
+			versionGetter = getter(type, versionField);
+			versionSetter = setter(type, versionField, "(" + boxed(versionField.asType()) + ") version");
+
+			if (versionGetter == null || versionSetter == null) {
+				return inaccessible(versionField);
+			}
+		}
+
+		String qualifiedCodecName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedCodecName, type);
+
+		try (PrintWriter out = new PrintWriter(file.openWriter())) {
+			out.println("// Generated by " + getClass().getName() + ", do not edit.");
+
+			if (!packageName.isEmpty()) {
+				out.println("package " + packageName + ";");
+			}
+
+			out.println();
+			out.println("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+			out.println("public final class " + codecName + " implements " + CODEC + "<" + typeName + "> {");
+			out.println();
+			out.println("\tprivate static final java.util.List<" + RELATIONSHIP_CODEC + "<" + typeName
+					+ ">> RELATIONSHIPS = java.util.Collections.unmodifiableList(java.util.Arrays.asList(");
+
+			for (int i = 0; i < relationships.size(); i++) {
+				out.println("\t\t\tnew " + RELATIONSHIP_CODEC + "<" + typeName + ">(" + relationships.get(i) + ")"
+						+ (i < relationships.size() - 1 ? "," : ""));
+			}
+
+			out.println("\t));");
+			out.println();
+			method(out, "Class<" + typeName + "> getResourceClass()", "return " + typeName + ".class;");
+			method(out, "String getType()", "return " + literal(type.getAnnotation(JsonType.class).value()) + ";");
+			method(out, typeName + " newInstance()", "return new " + typeName + "();");
+			method(out, "String getIdName()", "return " + literal(idField.getSimpleName().toString()) + ";");
+			method(out, "Class<?> getIdType()", "return " + erasure(idField.asType()) + ".class;");
+			method(out, "Object getId(" + typeName + " resource)", "return " + idGetter + ";");
+			method(out, "void setId(" + typeName + " resource, Object id)", idSetter + ";");
+
+			if (idField.getAnnotation(JsonId.class).zeroIsUnset()) {
+				method(out, "boolean isZeroIdUnset()", "return true;");
+			}
+
+			if (versionField != null) {
+				method(out, "String getVersionName()",
+						"return " + literal(versionField.getSimpleName().toString()) + ";");
+				method(out, "Object getVersion(" + typeName + " resource)", "return " + versionGetter + ";");
+				method(out, "void setVersion(" + typeName + " resource, Object version)", versionSetter + ";");
+			}
+
+			method(out, "java.util.List<" + RELATIONSHIP_CODEC + "<" + typeName + ">> getRelationships()",
+					"return RELATIONSHIPS;");
+			out.println("}");
+		}
+
+		codecs.add(qualifiedCodecName);
+		return null;
+	}
+
+	private static String inaccessible(VariableElement field) {
+		return "field " + field.getSimpleName() + " has no accessible getter or setter";
+	}
+
+	private void writeIndex() {
+		Predicate<String> isResource = name -> {
+			TypeElement type = processingEnv.getElementUtils().getTypeElement(name.replace('$', '.'));
+			return type != null && type.getAnnotation(JsonType.class) != null;
+		};
+
+		readExisting(ResourceCodec.INDEX, index, isResource);
+		readExisting(SERVICES, codecs, name -> processingEnv.getElementUtils().getTypeElement(name) != null);
+
+		write(ResourceCodec.INDEX, index, "Resource index");
+		write(SERVICES, codecs, "Codec services");
+	}
+
+	private void write(String location, Set<String> names, String description) {
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", location);
+
+			try (PrintWriter out = new PrintWriter(file.openWriter())) {
+				out.println("# Generated by " + getClass().getName() + ", do not edit.");
+
+				for (String name : names) {
+					out.println(name);
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					description + " cannot be written: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Adds names listed by the file a previous compilation left at provided
+	 * location, which are accepted by provided filter.
+	 */
+	private void readExisting(String location, Set<String> names, Predicate<String> filter) {
+		try {
+			FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", location);
+
+			try (BufferedReader reader = new BufferedReader(file.openReader(true))) {
+				String line;
+
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+
+					if (!line.isEmpty() && !line.startsWith("#") && filter.test(line)) {
+						names.add(line);
+					}
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			// there is no previous file
+		}
+	}
+
+	private static void method(PrintWriter out, String signature, String body) {
+		out.println("\t@Override");
+		out.println("\tpublic " + signature + " {");
+		out.println("\t\t" + body);
+		out.println("\t}");
+		out.println();
+	}
+
+	/**
+	 * @return constructor arguments of the relationship codec or
+	 *         <code>null</code> in case field is not accessible
+	 * @throws IllegalArgumentException
+	 *             in case list relationship is not typed
+	 */
+	private String relationship(TypeElement type, VariableElement field, JsonRelation relation) {
+		String fieldType = erasure(field.asType());
+		String targetType = fieldType;
+
+		if ("java.util.List".equals(fieldType)) {
+			List<? extends TypeMirror> arguments = ((DeclaredType) field.asType()).getTypeArguments();
+
+			if (arguments.isEmpty()) {
+				throw new IllegalArgumentException("Relationship " + field.getSimpleName() + " must be typed!");
+			}
+
+			targetType = erasure(arguments.get(0));
+		}
+
+		String getter = getter(type, field);
+		String setter = setter(type, field, "(" + fieldType + ") value");
+
+		if (getter == null || setter == null) {
+			return null;
+		}
+
+		return literal(relation.value()) + ", " + literal(field.getSimpleName().toString()) + ", "
+				+ relation.included() + ", " + relation.lazy() + ", " + fieldType + ".class, " + targetType
+				+ ".class, resource -> " + getter + ", (resource, value) -> " + setter;
+	}
+
+	/**
+	 * @return boxed name of a supported id type
+	 * @throws IllegalArgumentException
+	 *             in case id type is not supported
+	 */
+	private String idType(VariableElement field) {
+		TypeMirror type = field.asType();
+
+		if (type.getKind() == TypeKind.INT || type.getKind() == TypeKind.LONG) {
+			return boxed(type);
+		}
+
+		String name = erasure(type);
+
+		if (name.equals("java.lang.Integer") || name.equals("java.lang.Long") || name.equals("java.lang.String")
+				|| name.equals("java.util.UUID")) {
+			return name;
+		}
+
+		throw new IllegalArgumentException(
+				"Id field " + field.getSimpleName() + " must be of int, long, Integer, Long, String or UUID type!");
+	}
+
+	private String boxed(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+		}
+
+		return erasure(type);
+	}
+
+	/**
+	 * @return expression reading provided field of <code>resource</code> or
+	 *         <code>null</code> in case field is private and has no getter
+	 */
+	private String getter(TypeElement type, VariableElement field) {
+		String name = field.getSimpleName().toString();
+
+		if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+			return "resource." + name;
+		}
+
+		String prefix = field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get";
+		ExecutableElement method = findMethod(type, field, prefix + capitalize(name), false);
+
+		return method != null ? "resource." + method.getSimpleName() + "()" : null;
+	}
+
+	/**
+	 * @return statement setting provided field of <code>resource</code> or
+	 *         <code>null</code> in case field is private or final and has no
+	 *         setter
+	 */
+	private String setter(TypeElement type, VariableElement field, String value) {
+		String name = field.getSimpleName().toString();
+		Set<Modifier> modifiers = field.getModifiers();
+
+		if (!modifiers.contains(Modifier.PRIVATE) && !modifiers.contains(Modifier.FINAL)) {
+			return "resource." + name + " = " + value;
+		}
+
+		ExecutableElement method = findMethod(type, field, "set" + capitalize(name), true);
+
+		return method != null ? "resource." + method.getSimpleName() + "(" + value + ")" : null;
+	}
+
+	/**
+	 * Looks up non-private instance accessor of provided field, declared by
+	 * provided class or its superclasses and accessible from the class's
+	 * package. Getters have to return the field type, setters have to take it
+	 * as their only parameter, so overloads of other types are never picked.
+	 */
+	private ExecutableElement findMethod(TypeElement type, VariableElement field, String name, boolean setter) {
+		Types types = processingEnv.getTypeUtils();
+		DeclaredType owner = (DeclaredType) type.asType();
+		TypeMirror fieldType = types.asMemberOf(owner, field);
+
+		for (ExecutableElement method : ElementFilter
+				.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+			Set<Modifier> modifiers = method.getModifiers();
+
+			if (!method.getSimpleName().contentEquals(name) || method.getParameters().size() != (setter ? 1 : 0)
+					|| modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)
+					|| (!modifiers.contains(Modifier.PUBLIC) && !samePackage(type, method))) {
+				continue;
+			}
+
+			ExecutableType executable = (ExecutableType) types.asMemberOf(owner, method);
+			TypeMirror accessorType = setter ? executable.getParameterTypes().get(0) : executable.getReturnType();
+
+			if (types.isSameType(accessorType, fieldType)) {
+				return method;
+			}
+		}
+
+		return null;
+	}
+
+	private boolean samePackage(TypeElement type, ExecutableElement method) {
+		return processingEnv.getElementUtils().getPackageOf(type)
+				.equals(processingEnv.getElementUtils().getPackageOf(method));
+	}
+
+	private String erasure(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private static String capitalize(String name) {
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private static String literal(String value) {
+		StringBuilder result = new StringBuilder("\"");
+
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				result.append('\\').append(c);
+			} else if (c < 0x20 || c > 0x7e) {
+				result.append(String.format("\\u%04x", (int) c));
+			} else {
+				result.append(c);
+			}
+		}
+
+		return result.append('"').toString();
+	}
+
+	private void error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+}
@@ -0,0 +1,160 @@
+package com.github.ashim.json.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.ashim.json.codec.ResourceCodec;
+import com.github.ashim.json.parser.ResourceResolver;
+
+public class JsonTypeProcessorTest {
+
+	private static final String TASK = "package sample;\n"
+			+ "import com.github.ashim.json.annotations.*;\n"
+			+ "@JsonType(\"task\")\n"
+			+ "public class Task {\n"
+			+ "\tpublic static int idWrites;\n"
+			+ "\t@JsonId private String id;\n"
+			+ "\t@JsonVersion private long version;\n"
+			+ "\tprivate String title;\n"
+			+ "\tpublic String getId() { return id; }\n"
+			+ "\tpublic void setId(String id) { idWrites++; this.id = id; }\n"
+			+ "\tpublic long getVersion() { return version; }\n"
+			+ "\tpublic void setVersion(long version) { this.version = version; }\n"
+			+ "\tpublic String getTitle() { return title; }\n"
+			+ "\tpublic void setTitle(String title) { this.title = title; }\n"
+			+ "}\n";
+
+	private static final String HIDDEN = "package sample;\n"
+			+ "import com.github.ashim.json.annotations.*;\n"
+			+ "@JsonType(\"hidden\")\n"
+			+ "public class Hidden {\n"
+			+ "\t@JsonId private String id;\n"
+			+ "}\n";
+
+	private static final String OVERLOADED = "package sample;\n"
+			+ "import com.github.ashim.json.annotations.*;\n"
+			+ "@JsonType(\"overloaded\")\n"
+			+ "public class Overloaded {\n"
+			+ "\t@JsonId private String id;\n"
+			+ "\tpublic String getId() { return id; }\n"
+			+ "\tpublic void setId(int id) { this.id = Integer.toString(id); }\n"
+			+ "}\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path sources;
+	private Path classes;
+
+	@Before
+	public void setup() throws IOException {
+		sources = folder.newFolder("src", "sample").toPath();
+		classes = folder.newFolder("classes").toPath();
+	}
+
+	@Test
+	public void testGeneratedCodec() throws Exception {
+		List<Diagnostic<? extends JavaFileObject>> diagnostics = compile("Task", TASK);
+
+		Assert.assertTrue(diagnostics.toString(), diagnostics.isEmpty());
+		Assert.assertTrue(Files.exists(classes.resolve("sample/Task_JsonApiCodec.class")));
+		Assert.assertEquals(Collections.singletonList("sample.Task_JsonApiCodec"),
+				entries("META-INF/services/" + ResourceCodec.class.getName()));
+		Assert.assertEquals(Collections.singletonList("sample.Task"),
+				entries(ResourceCodec.INDEX));
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { classes.toUri().toURL() },
+				getClass().getClassLoader())) {
+			Class<?> task = loader.loadClass("sample.Task");
+
+			ResourceCodec<?> codec = ServiceLoader.load(ResourceCodec.class, loader).iterator().next();
+			Assert.assertEquals(task, codec.getResourceClass());
+			Assert.assertEquals("version", codec.getVersionName());
+
+			// Private id of a class outside the resolver's class loader is
+			// only set through its setter by the generated codec
+			ResourceResolver resolver = ResourceResolver.fromIndex(null, loader);
+			Object resource = resolver.readJson(
+					"{\"data\":{\"type\":\"task\",\"id\":\"1\",\"attributes\":{\"title\":\"Write\"}}}"
+							.getBytes(StandardCharsets.UTF_8),
+					task);
+
+			Assert.assertEquals(1, task.getField("idWrites").getInt(null));
+			Assert.assertEquals("1", task.getMethod("getId").invoke(resource));
+			Assert.assertEquals("Write", task.getMethod("getTitle").invoke(resource));
+		}
+	}
+
+	@Test
+	public void testSkippedCodec() throws Exception {
+		List<Diagnostic<? extends JavaFileObject>> diagnostics = compile("Hidden", HIDDEN);
+
+		Assert.assertEquals(1, diagnostics.size());
+		Assert.assertEquals(Diagnostic.Kind.WARNING, diagnostics.get(0).getKind());
+		Assert.assertTrue(diagnostics.get(0).getMessage(null).contains("field id has no accessible getter or setter"));
+		Assert.assertFalse(Files.exists(classes.resolve("sample/Hidden_JsonApiCodec.class")));
+		Assert.assertEquals(Collections.singletonList("sample.Hidden"),
+				entries(ResourceCodec.INDEX));
+	}
+
+	@Test
+	public void testMismatchedAccessor() throws Exception {
+		List<Diagnostic<? extends JavaFileObject>> diagnostics = compile("Overloaded", OVERLOADED);
+
+		// Setter of another type is not picked, the class is skipped instead
+		Assert.assertEquals(1, diagnostics.size());
+		Assert.assertEquals(Diagnostic.Kind.WARNING, diagnostics.get(0).getKind());
+		Assert.assertTrue(diagnostics.get(0).getMessage(null).contains("field id has no accessible getter or setter"));
+		Assert.assertFalse(Files.exists(classes.resolve("sample/Overloaded_JsonApiCodec.class")));
+	}
+
+	private List<String> entries(String location) throws IOException {
+		return Files.readAllLines(classes.resolve(location)).stream().filter(line -> !line.startsWith("#"))
+				.collect(Collectors.toList());
+	}
+
+	private List<Diagnostic<? extends JavaFileObject>> compile(String name, String source) throws IOException {
+		File file = sources.resolve(name + ".java").toFile();
+		Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null,
+				StandardCharsets.UTF_8)) {
+			List<String> options = Arrays.asList("-d", classes.toString(), "-classpath",
+					System.getProperty("java.class.path"), "-Xlint:processing", "-implicit:none");
+
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+					fileManager.getJavaFileObjects(file));
+			task.setProcessors(Collections.singletonList(new JsonTypeProcessor()));
+
+			Assert.assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+		}
+
+		return diagnostics.getDiagnostics();
+	}
+}
@@ -13,4 +13,12 @@ import java.lang.annotation.Target;
 @Target({ ElementType.FIELD })
 @Retention(RetentionPolicy.RUNTIME)
 public @interface JsonId {
+
+	/**
+	 * Whether a primitive id of <code>0</code> marks a new resource without
+	 * id, which is written without 'id' member. Linkages always carry the id.
+	 * Ignored for reference typed ids, which are unset when <code>null</code>.
+	 */
+	boolean zeroIsUnset() default false;
+
 }
@@ -18,4 +18,11 @@ public @interface JsonRelation {
 
 	boolean included() default false;
 
+	/**
+	 * Whether to-many relationship is resolved on first access rather than
+	 * when the resource is read. Requires the field to be declared as a
+	 * <code>List</code>.
+	 */
+	boolean lazy() default false;
+
 }
\ No newline at end of file
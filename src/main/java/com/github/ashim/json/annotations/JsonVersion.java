@@ -0,0 +1,18 @@
+package com.github.ashim.json.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Json Resource Version, changed whenever the resource changes. Enables
+ * caching of written resource objects, see
+ * {@link com.github.ashim.json.parser.FragmentCache}.
+ *
+ * @author Ashim Jung Khadka
+ */
+@Target({ ElementType.FIELD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JsonVersion {
+}
@@ -0,0 +1,86 @@
+package com.github.ashim.json.codec;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Generated description of a JsonRelation field, see {@link ResourceCodec}.
+ *
+ * @param <T>
+ *            resource class
+ * @author Ashim Jung Khadka
+ */
+public final class RelationshipCodec<T> {
+
+	private final String name;
+	private final String fieldName;
+	private final boolean included;
+	private final boolean lazy;
+	private final Class<?> fieldType;
+	private final Class<?> targetType;
+	private final Function<T, Object> getter;
+	private final BiConsumer<T, Object> setter;
+
+	/**
+	 * @param name
+	 *            relationship name
+	 * @param fieldName
+	 *            name of the annotated field
+	 * @param included
+	 *            whether relationship is included by default
+	 * @param lazy
+	 *            whether to-many relationship is resolved on first access
+	 * @param fieldType
+	 *            declared type of the field
+	 * @param targetType
+	 *            resource class of the relationship, element type in case of
+	 *            a list
+	 * @param getter
+	 *            field getter
+	 * @param setter
+	 *            field setter
+	 */
+	public RelationshipCodec(String name, String fieldName, boolean included, boolean lazy, Class<?> fieldType,
+			Class<?> targetType, Function<T, Object> getter, BiConsumer<T, Object> setter) {
+		this.name = name;
+		this.fieldName = fieldName;
+		this.included = included;
+		this.lazy = lazy;
+		this.fieldType = fieldType;
+		this.targetType = targetType;
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	public boolean isIncluded() {
+		return included;
+	}
+
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	public Class<?> getFieldType() {
+		return fieldType;
+	}
+
+	public Class<?> getTargetType() {
+		return targetType;
+	}
+
+	public Function<T, Object> getGetter() {
+		return getter;
+	}
+
+	public BiConsumer<T, Object> getSetter() {
+		return setter;
+	}
+}
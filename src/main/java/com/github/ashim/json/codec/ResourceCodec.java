@@ -0,0 +1,116 @@
+package com.github.ashim.json.codec;
+
+import java.util.List;
+
+/**
+ * Description of a JsonType class generated at compile time by
+ * <code>json-org-converter-processor</code>. <br />
+ *
+ * The codec of class <code>com.example.User</code> is named
+ * <code>com.example.User_JsonApiCodec</code>, nested classes joining their
+ * names with an underscore. Codecs are registered as
+ * {@link java.util.ServiceLoader} services, resolvers load the codecs of
+ * registered classes when they are created and fall back to reflection for
+ * classes without one. <br />
+ *
+ * Codecs create resources and access their id, version and relationship
+ * fields directly, without reflection or method handles. Attributes are not
+ * covered: they are still bound and written by Jackson's bean
+ * (de)serializers, which introspect resource classes reflectively, so native
+ * images keep needing reflection configuration for attribute properties.
+ *
+ * @param <T>
+ *            resource class
+ * @author Ashim Jung Khadka
+ */
+public interface ResourceCodec<T> {
+
+	/**
+	 * Suffix of generated codec class names.
+	 */
+	String SUFFIX = "_JsonApiCodec";
+
+	/**
+	 * Classpath resource listing binary names of all JsonType classes of a
+	 * compilation unit, one per line, generated along with their codecs.
+	 */
+	String INDEX = "META-INF/json-org-converter/resources";
+
+	Class<T> getResourceClass();
+
+	/**
+	 * @return JSON API type name
+	 */
+	String getType();
+
+	/**
+	 * @return new instance of the resource class
+	 */
+	T newInstance();
+
+	/**
+	 * @return name of the JsonId field
+	 */
+	String getIdName();
+
+	/**
+	 * @return declared type of the JsonId field, primitives included
+	 */
+	Class<?> getIdType();
+
+	/**
+	 * @param resource
+	 *            resource
+	 * @return id value, boxed in case of primitive id
+	 */
+	Object getId(T resource);
+
+	/**
+	 * @param resource
+	 *            resource
+	 * @param id
+	 *            id value of the id type, boxed in case of primitive id
+	 */
+	void setId(T resource, Object id);
+
+	/**
+	 * @return whether a primitive id of <code>0</code> marks a new resource,
+	 *         see {@link com.github.ashim.json.annotations.JsonId#zeroIsUnset()}
+	 */
+	default boolean isZeroIdUnset() {
+		return false;
+	}
+
+	/**
+	 * @return name of the JsonVersion field or <code>null</code> in case class
+	 *         has none
+	 */
+	default String getVersionName() {
+		return null;
+	}
+
+	/**
+	 * @param resource
+	 *            resource
+	 * @return version value, boxed in case of primitive version
+	 */
+	default Object getVersion(T resource) {
+		throw new UnsupportedOperationException(getResourceClass().getName() + " has no version field!");
+	}
+
+	/**
+	 * @param resource
+	 *            resource
+	 * @param version
+	 *            version value of the version type, boxed in case of
+	 *            primitive version
+	 */
+	default void setVersion(T resource, Object version) {
+		throw new UnsupportedOperationException(getResourceClass().getName() + " has no version field!");
+	}
+
+	/**
+	 * @return JsonRelation fields in declaration order
+	 */
+	List<RelationshipCodec<T>> getRelationships();
+}
@@ -1,7 +1,5 @@
 package com.github.ashim.json.error;
 
-import javax.xml.transform.Source;
-
 import com.fasterxml.jackson.databind.JsonNode;
 
 /**
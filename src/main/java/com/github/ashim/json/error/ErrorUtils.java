@@ -1,9 +1,15 @@
 package com.github.ashim.json.error;
 
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 /**
  * Utility class providing methods needed for parsing JSON API Spec errors.
@@ -13,6 +19,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class ErrorUtils {
 
 	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final TypeReference<List<Error>> ERRORS_TYPE = new TypeReference<List<Error>>() {
+	};
 
 	static {
 		MAPPER.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
@@ -35,4 +43,35 @@ public class ErrorUtils {
 		return MAPPER.treeToValue(errorResponse, ErrorResponse.class);
 	}
 
+	/**
+	 * Creates reader binding the value of the 'errors' member. The reader is
+	 * derived from provided mapper, so it shares its configuration and
+	 * deserializer caches, and is meant to be created once and reused.
+	 *
+	 * @param mapper
+	 *            resolver's mapper
+	 * @return errors reader
+	 */
+	public static ObjectReader createErrorsReader(ObjectMapper mapper) {
+		return mapper.readerFor(ERRORS_TYPE).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+	}
+
+	/**
+	 * Binds the value of the 'errors' member straight from the token stream,
+	 * without building a tree.
+	 *
+	 * @param parser
+	 *            parser positioned at the first token of the member's value
+	 * @param errorsReader
+	 *            reader created by {@link #createErrorsReader(ObjectMapper)}
+	 * @return ErrorResponse collection
+	 * @throws IOException
+	 *             thrown in case value is not parseable
+	 */
+	public static ErrorResponse readErrors(JsonParser parser, ObjectReader errorsReader) throws IOException {
+		ErrorResponse result = new ErrorResponse();
+		result.setErrors(errorsReader.readValue(parser));
+		return result;
+	}
+
 }
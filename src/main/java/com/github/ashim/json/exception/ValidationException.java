@@ -0,0 +1,30 @@
+package com.github.ashim.json.exception;
+
+/**
+ * ValidationException implementation. <br />
+ * This exception is thrown from ResourceResolver in case a document crosses a
+ * limit of its ValidationPolicy.
+ *
+ * @author Ashim Jung Khadka
+ */
+public class ValidationException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+	private final long byteOffset;
+
+	public ValidationException(String message, long byteOffset) {
+		super(byteOffset >= 0 ? message + " (byte offset " + byteOffset + ")" : message);
+		this.byteOffset = byteOffset;
+	}
+
+	/**
+	 * Returns offset of the input byte the violation was detected at or -1 in
+	 * case it is not known, e.g. for buffered parts of a document.
+	 *
+	 * @return byte offset
+	 */
+	public long getByteOffset() {
+		return byteOffset;
+	}
+
+}
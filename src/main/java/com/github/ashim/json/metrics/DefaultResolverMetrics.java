@@ -0,0 +1,258 @@
+package com.github.ashim.json.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Resolver metrics backed by striped <code>LongAdder</code> counters. <br />
+ *
+ * Phase timings are recorded into histograms of power-of-two buckets, so
+ * recording is a couple of uncontended increments and percentiles are
+ * accurate to within a factor of two. Metrics can be exposed through the
+ * platform MBean server.
+ *
+ * <pre>
+ * DefaultResolverMetrics metrics = new DefaultResolverMetrics();
+ * metrics.register("users");
+ * resolver.setMetrics(metrics);
+ * </pre>
+ *
+ * @author Ashim Jung Khadka
+ */
+public class DefaultResolverMetrics implements ResolverMetrics, ResolverMetricsMXBean {
+
+	private static final String DOMAIN = "com.github.ashim.json";
+
+	private final Map<Phase, Histogram> histograms = new EnumMap<>(Phase.class);
+
+	private final LongAdder resources = new LongAdder();
+	private final LongAdder includedResources = new LongAdder();
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
+
+	private ObjectName objectName;
+
+	public DefaultResolverMetrics() {
+		for (Phase phase : Phase.values()) {
+			histograms.put(phase, new Histogram());
+		}
+	}
+
+	@Override
+	public void phase(Phase phase, long nanos) {
+		histograms.get(phase).record(nanos);
+	}
+
+	@Override
+	public void resource() {
+		resources.increment();
+	}
+
+	@Override
+	public void included(int count) {
+		includedResources.add(count);
+	}
+
+	@Override
+	public void relationshipLookup(boolean hit) {
+		(hit ? cacheHits : cacheMisses).increment();
+	}
+
+	@Override
+	public long getResources() {
+		return resources.sum();
+	}
+
+	@Override
+	public long getIncludedResources() {
+		return includedResources.sum();
+	}
+
+	@Override
+	public long getRelationshipLookups() {
+		return cacheHits.sum() + cacheMisses.sum();
+	}
+
+	@Override
+	public long getCacheHits() {
+		return cacheHits.sum();
+	}
+
+	@Override
+	public long getCacheMisses() {
+		return cacheMisses.sum();
+	}
+
+	/**
+	 * @param phase
+	 *            timed phase
+	 * @return number of completed phases
+	 */
+	public long getCount(Phase phase) {
+		return histograms.get(phase).count.sum();
+	}
+
+	/**
+	 * @param phase
+	 *            timed phase
+	 * @return total time spent in phase, in nanoseconds
+	 */
+	public long getTotalNanos(Phase phase) {
+		return histograms.get(phase).total.sum();
+	}
+
+	/**
+	 * Returns upper bound of the histogram bucket holding provided percentile.
+	 *
+	 * @param phase
+	 *            timed phase
+	 * @param percentile
+	 *            percentile between 0 and 100
+	 * @return phase duration in nanoseconds, 0 in case phase was not recorded
+	 */
+	public long getPercentileNanos(Phase phase, double percentile) {
+		return histograms.get(phase).percentile(percentile);
+	}
+
+	@Override
+	public Map<String, Long> getPhaseCounts() {
+		return toMap(this::getCount);
+	}
+
+	@Override
+	public Map<String, Long> getPhaseTotalNanos() {
+		return toMap(this::getTotalNanos);
+	}
+
+	@Override
+	public Map<String, Long> getPhaseMedianNanos() {
+		return toMap(phase -> getPercentileNanos(phase, 50));
+	}
+
+	@Override
+	public Map<String, Long> getPhase99thPercentileNanos() {
+		return toMap(phase -> getPercentileNanos(phase, 99));
+	}
+
+	@Override
+	public void reset() {
+		histograms.values().forEach(Histogram::reset);
+		resources.reset();
+		includedResources.reset();
+		cacheHits.reset();
+		cacheMisses.reset();
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server as
+	 * <code>com.github.ashim.json:type=ResolverMetrics,name=&lt;name&gt;</code>.
+	 *
+	 * @param name
+	 *            name distinguishing resolvers
+	 * @throws RuntimeException
+	 *             in case registration fails
+	 */
+	public synchronized void register(String name) {
+		try {
+			ObjectName objectName = new ObjectName(DOMAIN + ":type=ResolverMetrics,name=" + ObjectName.quote(name));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			this.objectName = objectName;
+		} catch (JMException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Unregisters these metrics from the platform MBean server, in case they
+	 * were registered.
+	 *
+	 * @throws RuntimeException
+	 *             in case unregistration fails
+	 */
+	public synchronized void unregister() {
+		if (objectName == null) {
+			return;
+		}
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			objectName = null;
+		} catch (JMException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private Map<String, Long> toMap(ToLongFunction<Phase> value) {
+		Map<String, Long> result = new LinkedHashMap<>();
+
+		for (Phase phase : Phase.values()) {
+			result.put(phase.name(), value.applyAsLong(phase));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Histogram of durations, bucket <code>i</code> counting durations of
+	 * <code>i</code> significant bits.
+	 */
+	private static class Histogram {
+
+		private final LongAdder[] buckets = new LongAdder[Long.SIZE + 1];
+		private final LongAdder count = new LongAdder();
+		private final LongAdder total = new LongAdder();
+
+		Histogram() {
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = new LongAdder();
+			}
+		}
+
+		void record(long nanos) {
+			long value = Math.max(nanos, 0L);
+
+			buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+			count.increment();
+			total.add(value);
+		}
+
+		long percentile(double percentile) {
+			long[] counts = new long[buckets.length];
+			long sum = 0;
+
+			for (int i = 0; i < buckets.length; i++) {
+				counts[i] = buckets[i].sum();
+				sum += counts[i];
+			}
+
+			long rank = (long) Math.ceil(sum * percentile / 100);
+			long seen = 0;
+
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+
+				if (counts[i] > 0 && seen >= rank) {
+					return i < Long.SIZE - 1 ? (1L << i) - 1 : Long.MAX_VALUE;
+				}
+			}
+
+			return 0L;
+		}
+
+		void reset() {
+			for (LongAdder bucket : buckets) {
+				bucket.reset();
+			}
+
+			count.reset();
+			total.reset();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.github.ashim.json.metrics;
+
+/**
+ * Listener receiving timings and counts of conversions done by a
+ * ResourceResolver. <br />
+ *
+ * Phases nest: {@link Phase#INCLUDED} contains attribute binding and
+ * relationship handling of included resources, {@link Phase#READ} and
+ * {@link Phase#WRITE} cover a whole blocking read or write. Implementations
+ * are called concurrently by resolvers shared between threads and from
+ * parallel reads and writes, so they must be thread-safe and cheap. <br />
+ *
+ * Metrics are disabled unless a listener is set, in which case the resolver
+ * does not even read the clock.
+ *
+ * @author Ashim Jung Khadka
+ */
+public interface ResolverMetrics {
+
+	/**
+	 * Timed phases of a conversion.
+	 */
+	enum Phase {
+		/** Reading a whole document. */
+		READ,
+		/** Binding attributes of a resource. */
+		ATTRIBUTES,
+		/** Reading relationships of a resource into a tree. */
+		RELATIONSHIPS_TREE,
+		/** Resolving relationships of a resource against the included index. */
+		RELATIONSHIPS,
+		/** Converting the 'included' member of a document. */
+		INCLUDED,
+		/** Writing a whole document. */
+		WRITE
+	}
+
+	/**
+	 * Called once a phase completes.
+	 *
+	 * @param phase
+	 *            completed phase
+	 * @param nanos
+	 *            elapsed time in nanoseconds
+	 */
+	void phase(Phase phase, long nanos);
+
+	/**
+	 * Called for every primary resource read.
+	 */
+	void resource();
+
+	/**
+	 * Called once the 'included' member of a document is converted.
+	 *
+	 * @param count
+	 *            number of included resources
+	 */
+	void included(int count);
+
+	/**
+	 * Called for every relationship linkage looked up in the included index.
+	 *
+	 * @param hit
+	 *            <code>true</code> in case index held the resource,
+	 *            <code>false</code> in case a linkage object was created
+	 */
+	void relationshipLookup(boolean hit);
+}
@@ -0,0 +1,35 @@
+package com.github.ashim.json.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link DefaultResolverMetrics}. Phase attributes are keyed by
+ * {@link ResolverMetrics.Phase} name.
+ *
+ * @author Ashim Jung Khadka
+ */
+public interface ResolverMetricsMXBean {
+
+	long getResources();
+
+	long getIncludedResources();
+
+	long getRelationshipLookups();
+
+	long getCacheHits();
+
+	long getCacheMisses();
+
+	Map<String, Long> getPhaseCounts();
+
+	Map<String, Long> getPhaseTotalNanos();
+
+	Map<String, Long> getPhaseMedianNanos();
+
+	Map<String, Long> getPhase99thPercentileNanos();
+
+	/**
+	 * Resets all counters and histograms.
+	 */
+	void reset();
+}
@@ -0,0 +1,74 @@
+package com.github.ashim.json.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Encoding of JSON API documents. <br />
+ *
+ * A resolver reads and writes documents in the format of its mapper, so a
+ * resolver created with the mapper of a binary format exchanges the same
+ * document structure as Smile or CBOR, e.g. between services which both use
+ * this converter, while public endpoints keep using a JSON resolver. Binary
+ * formats require <code>jackson-dataformat-smile</code> or
+ * <code>jackson-dataformat-cbor</code> on the classpath. <br />
+ *
+ * Smile documents refer back to names and short values written before, so the
+ * 'type', 'id' and 'attributes' keys as well as repeated type names are
+ * written once per document. CBOR has no back-references.
+ *
+ * <pre>
+ * ResourceResolver internal = new ResourceResolver(DataFormat.SMILE.createMapper(), User.class, Role.class);
+ * internal.writeJsonCollection(users, output);
+ * </pre>
+ *
+ * Methods converting to and from <code>String</code> are available for JSON
+ * only, binary documents are written to streams and read from bytes, buffers,
+ * streams or files. Non-blocking feeders are not supported for CBOR.
+ *
+ * @author Ashim Jung Khadka
+ */
+public enum DataFormat {
+
+	JSON, SMILE, CBOR;
+
+	/**
+	 * Creates mapper of this format, to be passed to
+	 * {@link ResourceResolver#ResourceResolver(ObjectMapper, Class...)}.
+	 *
+	 * @return new mapper
+	 * @throws NoClassDefFoundError
+	 *             in case the format's Jackson module is not on the classpath
+	 */
+	public ObjectMapper createMapper() {
+		switch (this) {
+		case SMILE:
+			return new ObjectMapper(Smile.createFactory());
+		case CBOR:
+			return new ObjectMapper(Cbor.createFactory());
+		default:
+			return new ObjectMapper();
+		}
+	}
+
+	/**
+	 * Holders keeping optional format classes from being loaded along with
+	 * this enum.
+	 */
+	private static final class Smile {
+
+		static JsonFactory createFactory() {
+			return new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+		}
+	}
+
+	private static final class Cbor {
+
+		static JsonFactory createFactory() {
+			return new CBORFactory();
+		}
+	}
+}
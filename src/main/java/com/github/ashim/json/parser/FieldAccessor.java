@@ -0,0 +1,238 @@
+package com.github.ashim.json.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Precompiled getter/setter pair for a resource field. <br />
+ *
+ * Accessors are resolved once when the resolver is created. The field itself
+ * is bound through {@link MethodHandles.Lookup#unreflectGetter(Field)} and
+ * {@link MethodHandles.Lookup#unreflectSetter(Field)}, bean getters/setters are
+ * never called, the same as with {@link Field#get(Object)} and
+ * {@link Field#set(Object, Object)}. <br />
+ *
+ * The handles are held in <code>static final</code> slots of a copy of
+ * {@link FieldSlot} defined per field, so the JIT inlines the access into the
+ * caller. In case the copy cannot be defined, e.g. because the class file of
+ * the template is not readable, the handles are held in instance fields
+ * instead, which the JIT cannot inline through.
+ *
+ * @author Ashim Jung Khadka
+ */
+final class FieldAccessor {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final byte[] SLOT = readSlot();
+
+	private final Field field;
+	private final String name;
+	private final Function<Object, Object> getter;
+	private final BiConsumer<Object, Object> setter;
+
+	private FieldAccessor(Field field, String name, Function<Object, Object> getter,
+			BiConsumer<Object, Object> setter) {
+		this.field = field;
+		this.name = name;
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	/**
+	 * Creates accessor for provided field, holding its handles in constant
+	 * slots.
+	 *
+	 * @param field
+	 *            source field
+	 * @return field accessor
+	 * @throws IllegalArgumentException
+	 *             in case field cannot be made accessible
+	 */
+	@SuppressWarnings("unchecked")
+	static FieldAccessor create(Field field) {
+		MethodHandle[] handles = unreflect(field);
+
+		if (SLOT != null) {
+			try {
+				Object slot = new SlotLoader(handles).newSlot();
+
+				return new FieldAccessor(field, field.getName(), (Function<Object, Object>) slot,
+						(BiConsumer<Object, Object>) slot);
+			} catch (ReflectiveOperationException | LinkageError e) {
+				// Handles are held by the accessor below
+			}
+		}
+
+		return new FieldAccessor(field, field.getName(), handleGetter(handles[0]), handleSetter(handles[1]));
+	}
+
+	/**
+	 * Creates accessor for provided field, holding its handles in instance
+	 * fields. Used when no constant slot can be defined.
+	 *
+	 * @param field
+	 *            source field
+	 * @return field accessor
+	 * @throws IllegalArgumentException
+	 *             in case field cannot be made accessible
+	 */
+	static FieldAccessor createFallback(Field field) {
+		MethodHandle[] handles = unreflect(field);
+
+		return new FieldAccessor(field, field.getName(), handleGetter(handles[0]), handleSetter(handles[1]));
+	}
+
+	/**
+	 * Creates accessor of provided getter/setter pair, e.g. of a generated
+	 * codec.
+	 *
+	 * @param name
+	 *            field name
+	 * @param getter
+	 *            field getter
+	 * @param setter
+	 *            field setter
+	 * @return field accessor
+	 */
+	static FieldAccessor of(String name, Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+		return new FieldAccessor(null, name, getter, setter);
+	}
+
+	private static MethodHandle[] unreflect(Field field) {
+		try {
+			field.setAccessible(true);
+
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+			return new MethodHandle[] { lookup.unreflectGetter(field).asType(GETTER_TYPE),
+					lookup.unreflectSetter(field).asType(SETTER_TYPE) };
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException("Field " + field.getName() + " is not accessible!", e);
+		}
+	}
+
+	/**
+	 * Reads class file of the slot template.
+	 *
+	 * @return class file or <code>null</code> in case it is not readable
+	 */
+	private static byte[] readSlot() {
+		String resource = FieldSlot.class.getName().replace('.', '/') + ".class";
+
+		try (InputStream input = FieldAccessor.class.getClassLoader().getResourceAsStream(resource)) {
+			if (input == null) {
+				return null;
+			}
+
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+				output.write(buffer, 0, read);
+			}
+
+			return output.toByteArray();
+		} catch (IOException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static Function<Object, Object> handleGetter(MethodHandle handle) {
+		return target -> {
+			try {
+				return handle.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	private static BiConsumer<Object, Object> handleSetter(MethodHandle handle) {
+		return (target, value) -> {
+			try {
+				handle.invokeExact(target, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	/**
+	 * Returns field value of provided target object.
+	 *
+	 * @param target
+	 *            target POJO
+	 * @return field value
+	 */
+	public Object get(Object target) {
+		return getter.apply(target);
+	}
+
+	/**
+	 * Sets field value of provided target object.
+	 *
+	 * @param target
+	 *            target POJO
+	 * @param value
+	 *            new field value
+	 */
+	public void set(Object target, Object value) {
+		setter.accept(target, value);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return accessed field or <code>null</code> in case accessor is backed
+	 *         by a generated codec
+	 */
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * Defines one copy of {@link FieldSlot} and hands it the handles of one
+	 * field.
+	 */
+	private static final class SlotLoader extends ClassLoader implements Supplier<MethodHandle[]> {
+
+		private final MethodHandle[] handles;
+
+		SlotLoader(MethodHandle[] handles) {
+			super(FieldAccessor.class.getClassLoader());
+			this.handles = handles;
+		}
+
+		@Override
+		public MethodHandle[] get() {
+			return handles;
+		}
+
+		Object newSlot() throws ReflectiveOperationException {
+			Class<?> slotClass = defineClass(FieldSlot.class.getName(), SLOT, 0, SLOT.length,
+					FieldAccessor.class.getProtectionDomain());
+			Constructor<?> constructor = slotClass.getDeclaredConstructor();
+			constructor.setAccessible(true);
+
+			return constructor.newInstance();
+		}
+	}
+}
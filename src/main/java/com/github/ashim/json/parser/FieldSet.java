@@ -0,0 +1,136 @@
+package com.github.ashim.json.parser;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets of a request, i.e. <code>fields[type]=a,b</code>. <br />
+ *
+ * Restricts attributes and relationships of listed resource types to the
+ * requested ones, other types are left untouched. Instances are immutable and
+ * can be used as cache keys.
+ *
+ * <pre>
+ * FieldSet fieldSet = FieldSet.of("users", "name").with("roles", "title");
+ * </pre>
+ *
+ * @author Ashim Jung Khadka
+ */
+public final class FieldSet {
+
+	/**
+	 * Fieldset not restricting any type.
+	 */
+	public static final FieldSet ALL = new FieldSet(Collections.<String, Set<String>> emptyMap());
+
+	private static final String PARAMETER_PREFIX = "fields[";
+
+	private final Map<String, Set<String>> fields;
+
+	private FieldSet(Map<String, Set<String>> fields) {
+		this.fields = fields;
+	}
+
+	/**
+	 * Creates fieldset restricting provided type.
+	 *
+	 * @param type
+	 *            JSON API type name
+	 * @param fields
+	 *            requested attribute and relationship names
+	 * @return fieldset
+	 */
+	public static FieldSet of(String type, String... fields) {
+		return ALL.with(type, fields);
+	}
+
+	/**
+	 * Creates fieldset from request parameters, parameters other than
+	 * <code>fields[type]</code> are ignored.
+	 *
+	 * @param parameters
+	 *            request parameters
+	 * @return fieldset
+	 */
+	public static FieldSet parse(Map<String, String> parameters) {
+		FieldSet result = ALL;
+
+		for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+			String name = parameter.getKey();
+
+			if (name.startsWith(PARAMETER_PREFIX) && name.endsWith("]")) {
+				String value = parameter.getValue() != null ? parameter.getValue().trim() : "";
+				result = result.with(name.substring(PARAMETER_PREFIX.length(), name.length() - 1),
+						value.isEmpty() ? new String[0] : value.split("\\s*,\\s*"));
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns copy of this fieldset additionally restricting provided type.
+	 *
+	 * @param type
+	 *            JSON API type name
+	 * @param fields
+	 *            requested attribute and relationship names
+	 * @return fieldset
+	 */
+	public FieldSet with(String type, String... fields) {
+		Map<String, Set<String>> result = new HashMap<>(this.fields);
+		result.put(type, Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(fields))));
+		return new FieldSet(Collections.unmodifiableMap(result));
+	}
+
+	/**
+	 * @return <code>true</code> in case no type is restricted
+	 */
+	public boolean isEmpty() {
+		return fields.isEmpty();
+	}
+
+	/**
+	 * Checks whether provided field of provided type is requested.
+	 *
+	 * @param type
+	 *            JSON API type name
+	 * @param field
+	 *            attribute or relationship name
+	 * @return <code>true</code> in case type is not restricted or field is
+	 *         requested
+	 */
+	public boolean contains(String type, String field) {
+		Set<String> typeFields = fields.get(type);
+		return typeFields == null || typeFields.contains(field);
+	}
+
+	/**
+	 * @param type
+	 *            JSON API type name
+	 * @return requested fields of provided type or <code>null</code> in case
+	 *         type is not restricted
+	 */
+	public Set<String> getFields(String type) {
+		return fields.get(type);
+	}
+
+	@Override
+	public int hashCode() {
+		return fields.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return this == obj || (obj instanceof FieldSet && fields.equals(((FieldSet) obj).fields));
+	}
+
+	@Override
+	public String toString() {
+		return "FieldSet " + fields;
+	}
+}
@@ -0,0 +1,56 @@
+package com.github.ashim.json.parser;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Template of a constant field accessor. <br />
+ *
+ * Never loaded by the class loader of the library, {@link FieldAccessor}
+ * defines a fresh copy of this class per field in its own class loader. The
+ * loader hands the field handles to the static initializer, so every copy
+ * holds its handles in <code>static final</code> slots the JIT treats as
+ * constants and inlines. <br />
+ *
+ * The class must only reference JDK types, since its copies live in a
+ * different runtime package than the rest of the library.
+ *
+ * @author Ashim Jung Khadka
+ */
+final class FieldSlot implements Function<Object, Object>, BiConsumer<Object, Object> {
+
+	private static final MethodHandle GETTER;
+	private static final MethodHandle SETTER;
+
+	static {
+		@SuppressWarnings("unchecked")
+		MethodHandle[] handles = ((Supplier<MethodHandle[]>) FieldSlot.class.getClassLoader()).get();
+
+		GETTER = handles[0];
+		SETTER = handles[1];
+	}
+
+	@Override
+	public Object apply(Object target) {
+		try {
+			return GETTER.invokeExact(target);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void accept(Object target, Object value) {
+		try {
+			SETTER.invokeExact(target, value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package com.github.ashim.json.parser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.core.SerializableString;
+
+/**
+ * Least recently used cache of written resource objects. <br />
+ *
+ * Set on a resolver, resource objects of classes with a
+ * {@link com.github.ashim.json.annotations.JsonVersion} field are encoded once
+ * per type, id and version, and later writes of the same version splice the
+ * encoded bytes straight into the output. A resource whose version changed is
+ * encoded again, resources changed without a new version have to be
+ * invalidated. <br />
+ *
+ * Only complete resource objects written as JSON text without pretty printing
+ * or custom character escapes are cached, writes restricted by a fieldset and
+ * binary formats are encoded as usual. Fragments are only reused by
+ * generators quoting and escaping output the way the generator that encoded
+ * them did. Cache is thread-safe and can be shared by resolvers writing the
+ * same classes with the same mapper configuration.
+ *
+ * <pre>
+ * FragmentCache cache = new FragmentCache(10000);
+ * resolver.setFragmentCache(cache);
+ * </pre>
+ *
+ * @author Ashim Jung Khadka
+ */
+public final class FragmentCache {
+
+	private final Map<Key, Fragment> fragments;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maxEntries
+	 *            maximum number of cached resources, least recently written
+	 *            ones are evicted first
+	 * @throws IllegalArgumentException
+	 *             in case size is not positive
+	 */
+	public FragmentCache(int maxEntries) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("Cache size must be positive!");
+		}
+
+		this.fragments = new LinkedHashMap<Key, Fragment>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Fragment> eldest) {
+				if (size() > maxEntries) {
+					evictions.increment();
+					return true;
+				}
+
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * @param type
+	 *            JSON API type name
+	 * @param id
+	 *            value of the 'id' member
+	 * @param version
+	 *            current version of the resource
+	 * @param encoding
+	 *            output settings of the generator the resource is written to
+	 * @return encoded resource object or <code>null</code> in case it is not
+	 *         cached in provided version and encoding
+	 */
+	SerializableString get(String type, String id, Object version, long encoding) {
+		Fragment fragment;
+
+		synchronized (fragments) {
+			fragment = fragments.get(new Key(type, id));
+		}
+
+		if (fragment != null && fragment.encoding == encoding && fragment.version.equals(version)) {
+			hits.increment();
+			return fragment.value;
+		}
+
+		misses.increment();
+		return null;
+	}
+
+	void put(String type, String id, Object version, long encoding, SerializableString value) {
+		Key key = new Key(type, id);
+		Fragment fragment = new Fragment(version, encoding, value);
+
+		synchronized (fragments) {
+			fragments.put(key, fragment);
+		}
+	}
+
+	/**
+	 * Drops cached resource, so that it is encoded again when written next.
+	 *
+	 * @param type
+	 *            JSON API type name
+	 * @param id
+	 *            value of the 'id' member
+	 */
+	public void invalidate(String type, String id) {
+		Key key = new Key(Objects.requireNonNull(type), Objects.requireNonNull(id));
+
+		synchronized (fragments) {
+			fragments.remove(key);
+		}
+	}
+
+	/**
+	 * Drops all cached resources.
+	 */
+	public void invalidateAll() {
+		synchronized (fragments) {
+			fragments.clear();
+		}
+	}
+
+	/**
+	 * @return number of cached resources
+	 */
+	public int size() {
+		synchronized (fragments) {
+			return fragments.size();
+		}
+	}
+
+	/**
+	 * @return number of resources written from the cache
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return number of cacheable resources encoded because they were not
+	 *         cached in their current version
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return number of resources evicted to make room for others
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Resets hit, miss and eviction counters.
+	 */
+	public void resetCounters() {
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	private static final class Key {
+
+		private final String type;
+		private final String id;
+
+		Key(String type, String id) {
+			this.type = type;
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * type.hashCode() + id.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) obj;
+			return type.equals(other.type) && id.equals(other.id);
+		}
+	}
+
+	private static final class Fragment {
+
+		private final Object version;
+		private final long encoding;
+		private final SerializableString value;
+
+		Fragment(Object version, long encoding, SerializableString value) {
+			this.version = version;
+			this.encoding = encoding;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,447 @@
+package com.github.ashim.json.parser;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.NumberOutput;
+import com.github.ashim.json.annotations.JsonId;
+import com.github.ashim.json.common.Constants;
+
+/**
+ * Converts the JsonId field of a resource class to and from the 'id' member.
+ * <br />
+ *
+ * A codec is chosen once per class from the type of the id field, which can be
+ * <code>int</code>, <code>long</code>, their wrappers, <code>String</code> or
+ * <code>UUID</code>. Primitive fields are accessed through method handles of
+ * their exact type, so ids are never boxed. Numeric ids are parsed from the
+ * characters of the 'id' token, and formatted into a per-thread char buffer
+ * and written as strings. <br />
+ *
+ * Primitive ids cannot be <code>null</code>. With
+ * {@link com.github.ashim.json.annotations.JsonId#zeroIsUnset()} an id of
+ * <code>0</code> is treated as unset: such resources are written without 'id'
+ * and are told apart by identity only, like resources with a
+ * <code>null</code> wrapper id. Linkages always carry the id.
+ *
+ * @author Ashim Jung Khadka
+ */
+abstract class IdCodec {
+
+	/**
+	 * Returned by {@link #readNumber(JsonParser)} in case the 'id' member is
+	 * not read as a number.
+	 */
+	static final long NOT_NUMERIC = Long.MIN_VALUE;
+
+	private static final int MAX_LONG_LENGTH = 20;
+
+	private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_LONG_LENGTH]);
+
+	private final boolean zeroIsUnset;
+
+	private IdCodec(boolean zeroIsUnset) {
+		this.zeroIsUnset = zeroIsUnset;
+	}
+
+	/**
+	 * Creates codec of provided id field.
+	 *
+	 * @param field
+	 *            JsonId field
+	 * @return id codec
+	 * @throws IllegalArgumentException
+	 *             in case field type is not supported or field is not
+	 *             accessible
+	 */
+	static IdCodec create(Field field) {
+		Class<?> type = field.getType();
+		boolean zeroIsUnset = field.getAnnotation(JsonId.class).zeroIsUnset();
+
+		try {
+			if (type == int.class) {
+				return new IntCodec(field, zeroIsUnset);
+			} else if (type == long.class) {
+				return new LongCodec(field, zeroIsUnset);
+			}
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException("Field " + field.getName() + " is not accessible!", e);
+		}
+
+		return create(field.getName(), type, FieldAccessor.create(field), zeroIsUnset);
+	}
+
+	/**
+	 * Creates codec accessing id through provided accessor, boxing primitive
+	 * ids.
+	 *
+	 * @param name
+	 *            id field name
+	 * @param type
+	 *            declared type of the id field
+	 * @param accessor
+	 *            id accessor
+	 * @param zeroIsUnset
+	 *            whether a primitive id of <code>0</code> is unset
+	 * @return id codec
+	 * @throws IllegalArgumentException
+	 *             in case field type is not supported
+	 */
+	static IdCodec create(String name, Class<?> type, FieldAccessor accessor, boolean zeroIsUnset) {
+		boolean unset = zeroIsUnset && type.isPrimitive();
+
+		if (type == int.class || type == Integer.class) {
+			return new ObjectCodec(accessor, Integer::valueOf, id -> Integer.valueOf((int) id), true, unset);
+		} else if (type == long.class || type == Long.class) {
+			return new ObjectCodec(accessor, Long::valueOf, Long::valueOf, false, unset);
+		} else if (type == String.class) {
+			return new ObjectCodec(accessor, id -> id, null, false, false);
+		} else if (type == UUID.class) {
+			return new ObjectCodec(accessor, UUID::fromString, null, false, false);
+		}
+
+		throw new IllegalArgumentException(
+				"Id field " + name + " must be of int, long, Integer, Long, String or UUID type!");
+	}
+
+	/**
+	 * Sets id of provided resource.
+	 *
+	 * @param target
+	 *            resource
+	 * @param id
+	 *            non-empty value of the 'id' member
+	 * @throws IllegalArgumentException
+	 *             in case value cannot be converted to the id type
+	 */
+	abstract void set(Object target, String id);
+
+	/**
+	 * Reads the 'id' member the parser is positioned at as a number of the id
+	 * type, straight from the characters of the token, without materializing
+	 * it as a <code>String</code>.
+	 *
+	 * @param parser
+	 *            parser positioned at the value of the 'id' member
+	 * @return id or {@link #NOT_NUMERIC} in case the id type is not numeric or
+	 *         the value is no canonical number of the id type, which is then
+	 *         read through {@link #set(Object, String)}
+	 * @throws IOException
+	 */
+	long readNumber(JsonParser parser) throws IOException {
+		return NOT_NUMERIC;
+	}
+
+	/**
+	 * Sets numeric id of provided resource.
+	 *
+	 * @param target
+	 *            resource
+	 * @param id
+	 *            id returned by {@link #readNumber(JsonParser)}
+	 */
+	void set(Object target, long id) {
+		throw new UnsupportedOperationException("Id is not numeric!");
+	}
+
+	/**
+	 * Writes 'id' member of provided resource, unless it has no id.
+	 *
+	 * @param target
+	 *            resource
+	 * @param generator
+	 *            target generator
+	 * @param linkage
+	 *            whether resource is written as resource identifier object,
+	 *            which carries unset primitive ids as well
+	 * @throws IOException
+	 */
+	abstract void write(Object target, JsonGenerator generator, boolean linkage) throws IOException;
+
+	/**
+	 * @param target
+	 *            resource
+	 * @return value of the 'id' member or <code>null</code> in case resource
+	 *         has no id
+	 */
+	abstract String format(Object target);
+
+	/**
+	 * @return whether provided primitive id marks a new resource
+	 */
+	final boolean isUnset(long id) {
+		return zeroIsUnset && id == 0;
+	}
+
+	/**
+	 * Parses canonical decimal number of provided characters. Leading zeros
+	 * and negative zero are not canonical, they would not be formatted back
+	 * into the same identifier.
+	 *
+	 * @param integer
+	 *            whether number has to fit into an <code>int</code>
+	 * @return number or {@link #NOT_NUMERIC}
+	 */
+	private static long parseNumber(JsonParser parser, boolean integer) throws IOException {
+		JsonToken token = parser.getCurrentToken();
+
+		if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_INT) {
+			return NOT_NUMERIC;
+		}
+
+		char[] chars = parser.getTextCharacters();
+		int index = parser.getTextOffset();
+		int end = index + parser.getTextLength();
+
+		if (index == end || end - index > MAX_LONG_LENGTH) {
+			return NOT_NUMERIC;
+		}
+
+		boolean negative = chars[index] == '-';
+
+		if (negative && ++index == end || chars[index] == '0' && (negative || end - index > 1)) {
+			return NOT_NUMERIC;
+		}
+
+		// Accumulated negatively, the negative range being the larger one
+		long limit = integer ? Integer.MIN_VALUE : Long.MIN_VALUE;
+		long value = 0;
+
+		for (; index < end; index++) {
+			int digit = chars[index] - '0';
+
+			if (digit < 0 || digit > 9 || value < (limit + digit) / 10) {
+				return NOT_NUMERIC;
+			}
+
+			value = value * 10 - digit;
+		}
+
+		if (negative) {
+			return value;
+		}
+
+		return value != limit ? -value : NOT_NUMERIC;
+	}
+
+	/**
+	 * Writes numeric id as a string, as required by the specification. Digits
+	 * are formatted into a buffer reused by the thread, leaving the
+	 * generator's features untouched.
+	 */
+	private static void writeNumber(JsonGenerator generator, long id) throws IOException {
+		char[] buffer = BUFFER.get();
+		int length = NumberOutput.outputLong(id, buffer, 0);
+
+		generator.writeFieldName(Constants.ID);
+		generator.writeString(buffer, 0, length);
+	}
+
+	private static MethodHandle getter(Field field, Class<?> type) throws IllegalAccessException {
+		field.setAccessible(true);
+		return MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(type, Object.class));
+	}
+
+	private static MethodHandle setter(Field field, Class<?> type) throws IllegalAccessException {
+		field.setAccessible(true);
+		return MethodHandles.lookup().unreflectSetter(field)
+				.asType(MethodType.methodType(void.class, Object.class, type));
+	}
+
+	private static RuntimeException rethrow(Throwable e) {
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+
+		return new RuntimeException(e);
+	}
+
+	private static final class IntCodec extends IdCodec {
+
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		IntCodec(Field field, boolean zeroIsUnset) throws IllegalAccessException {
+			super(zeroIsUnset);
+			this.getter = getter(field, int.class);
+			this.setter = setter(field, int.class);
+		}
+
+		private int get(Object target) {
+			try {
+				return (int) getter.invokeExact(target);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		void set(Object target, String id) {
+			set(target, Integer.parseInt(id));
+		}
+
+		@Override
+		long readNumber(JsonParser parser) throws IOException {
+			return parseNumber(parser, true);
+		}
+
+		@Override
+		void set(Object target, long id) {
+			try {
+				setter.invokeExact(target, (int) id);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		void write(Object target, JsonGenerator generator, boolean linkage) throws IOException {
+			int id = get(target);
+
+			if (linkage || !isUnset(id)) {
+				writeNumber(generator, id);
+			}
+		}
+
+		@Override
+		String format(Object target) {
+			int id = get(target);
+			return !isUnset(id) ? Integer.toString(id) : null;
+		}
+	}
+
+	private static final class LongCodec extends IdCodec {
+
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		LongCodec(Field field, boolean zeroIsUnset) throws IllegalAccessException {
+			super(zeroIsUnset);
+			this.getter = getter(field, long.class);
+			this.setter = setter(field, long.class);
+		}
+
+		private long get(Object target) {
+			try {
+				return (long) getter.invokeExact(target);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		void set(Object target, String id) {
+			set(target, Long.parseLong(id));
+		}
+
+		@Override
+		long readNumber(JsonParser parser) throws IOException {
+			return parseNumber(parser, false);
+		}
+
+		@Override
+		void set(Object target, long id) {
+			try {
+				setter.invokeExact(target, id);
+			} catch (Throwable e) {
+				throw rethrow(e);
+			}
+		}
+
+		@Override
+		void write(Object target, JsonGenerator generator, boolean linkage) throws IOException {
+			long id = get(target);
+
+			if (linkage || !isUnset(id)) {
+				writeNumber(generator, id);
+			}
+		}
+
+		@Override
+		String format(Object target) {
+			long id = get(target);
+			return !isUnset(id) ? Long.toString(id) : null;
+		}
+	}
+
+	/**
+	 * Codec of reference typed ids, accessed through the field accessor.
+	 */
+	private static final class ObjectCodec extends IdCodec {
+
+		private final FieldAccessor accessor;
+		private final Function<String, Object> decoder;
+		private final LongFunction<Object> numberDecoder;
+		private final boolean integer;
+
+		/**
+		 * @param numberDecoder
+		 *            decoder of numbers read by {@link #readNumber(JsonParser)}
+		 *            or <code>null</code> in case id is not numeric
+		 * @param integer
+		 *            whether numeric id has to fit into an <code>int</code>
+		 */
+		ObjectCodec(FieldAccessor accessor, Function<String, Object> decoder, LongFunction<Object> numberDecoder,
+				boolean integer, boolean zeroIsUnset) {
+			super(zeroIsUnset);
+			this.accessor = accessor;
+			this.decoder = decoder;
+			this.numberDecoder = numberDecoder;
+			this.integer = integer;
+		}
+
+		@Override
+		void set(Object target, String id) {
+			accessor.set(target, decoder.apply(id));
+		}
+
+		@Override
+		long readNumber(JsonParser parser) throws IOException {
+			return numberDecoder != null ? parseNumber(parser, integer) : NOT_NUMERIC;
+		}
+
+		@Override
+		void set(Object target, long id) {
+			accessor.set(target, numberDecoder.apply(id));
+		}
+
+		@Override
+		void write(Object target, JsonGenerator generator, boolean linkage) throws IOException {
+			Object id = accessor.get(target);
+
+			if (id instanceof Integer || id instanceof Long) {
+				long number = ((Number) id).longValue();
+
+				if (linkage || !isUnset(number)) {
+					writeNumber(generator, number);
+				}
+			} else if (id != null) {
+				generator.writeStringField(Constants.ID, id.toString());
+			}
+		}
+
+		@Override
+		String format(Object target) {
+			Object id = accessor.get(target);
+
+			if (id instanceof Integer || id instanceof Long) {
+				return !isUnset(((Number) id).longValue()) ? id.toString() : null;
+			}
+
+			return id != null ? id.toString() : null;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.github.ashim.json.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resources read by in-place reads, keyed by their type and id. <br />
+ *
+ * Passed to
+ * {@link ResourceResolver#readJsonCollectionInto(byte[], Class, IdentityMap)},
+ * primary and included resources of a document are bound into the instances
+ * held for their type and id, and instances of resources seen for the first
+ * time are added. Polling the same document therefore updates one object
+ * graph instead of allocating a new one per read. Resources missing from later
+ * documents are kept until the map is cleared. <br />
+ *
+ * Map is not thread-safe, it has to be used by one read at a time.
+ *
+ * <pre>
+ * IdentityMap users = new IdentityMap();
+ * List&lt;User&gt; result = resolver.readJsonCollectionInto(data, User.class, users);
+ * </pre>
+ *
+ * @author Ashim Jung Khadka
+ */
+public final class IdentityMap {
+
+	private final Map<String, Object> resources = new HashMap<>();
+
+	/**
+	 * @param identifier
+	 *            resource type followed by its id
+	 * @return resource or <code>null</code> in case it is not known
+	 */
+	Object get(String identifier) {
+		return resources.get(identifier);
+	}
+
+	void put(String identifier, Object resource) {
+		resources.put(identifier, resource);
+	}
+
+	/**
+	 * @return number of known resources
+	 */
+	public int size() {
+		return resources.size();
+	}
+
+	public boolean isEmpty() {
+		return resources.isEmpty();
+	}
+
+	/**
+	 * Forgets all resources, so that following reads allocate new instances.
+	 */
+	public void clear() {
+		resources.clear();
+	}
+}
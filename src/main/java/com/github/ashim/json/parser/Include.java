@@ -0,0 +1,127 @@
+package com.github.ashim.json.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Include paths of a request, i.e. <code>include=roles.permissions</code>.
+ * <br />
+ *
+ * Relationships named by a path are written to the 'included' member of a
+ * document regardless of their <code>JsonRelation.included</code> flag, each
+ * segment of the path walking one level deeper into the object graph. Paths
+ * are cut at the maximum depth, which bounds the work of a single request.
+ * Instances are immutable.
+ *
+ * <pre>
+ * Include include = Include.parse("roles.permissions,author").withMaxDepth(2);
+ * </pre>
+ *
+ * @author Ashim Jung Khadka
+ */
+public final class Include {
+
+	public static final int DEFAULT_MAX_DEPTH = 3;
+
+	/**
+	 * Includes relationships flagged with <code>JsonRelation.included</code>
+	 * of primary resources.
+	 */
+	public static final Include DEFAULT = new Include(null, 1);
+
+	private final Node root;
+	private final int maxDepth;
+
+	private Include(Node root, int maxDepth) {
+		this.root = root;
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Creates include of provided dot-separated relationship paths.
+	 *
+	 * @param paths
+	 *            relationship paths, e.g. <code>roles.permissions</code>
+	 * @return include
+	 */
+	public static Include of(String... paths) {
+		Node root = new Node();
+
+		for (String path : paths) {
+			Node node = root;
+
+			for (String name : path.trim().split("\\.")) {
+				if (!name.isEmpty()) {
+					node = node.addChild(name);
+				}
+			}
+		}
+
+		return new Include(root, DEFAULT_MAX_DEPTH);
+	}
+
+	/**
+	 * Creates include from value of the <code>include</code> request parameter.
+	 *
+	 * @param include
+	 *            comma-separated relationship paths, empty to include nothing
+	 * @return include
+	 */
+	public static Include parse(String include) {
+		return include == null || include.trim().isEmpty() ? of() : of(include.split(","));
+	}
+
+	/**
+	 * Returns copy of this include cutting paths at provided depth.
+	 *
+	 * @param maxDepth
+	 *            maximum number of relationships walked from a primary
+	 *            resource
+	 * @return include
+	 * @throws IllegalArgumentException
+	 *             in case depth is not positive
+	 */
+	public Include withMaxDepth(int maxDepth) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("Maximum include depth must be positive!");
+		}
+
+		return new Include(root, maxDepth);
+	}
+
+	/**
+	 * @return root of include paths or <code>null</code> in case
+	 *         relationships are included by their annotation
+	 */
+	Node getRoot() {
+		return root;
+	}
+
+	int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Segment of include paths.
+	 */
+	static final class Node {
+
+		private final Map<String, Node> children = new HashMap<>();
+
+		private Node addChild(String name) {
+			return children.computeIfAbsent(name, key -> new Node());
+		}
+
+		/**
+		 * @return child segment or <code>null</code> in case relationship is
+		 *         not included
+		 */
+		Node getChild(String name) {
+			return children.get(name);
+		}
+
+		boolean isLeaf() {
+			return children.isEmpty();
+		}
+	}
+}
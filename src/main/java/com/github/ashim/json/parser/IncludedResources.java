@@ -0,0 +1,216 @@
+package com.github.ashim.json.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.ashim.json.parser.ResourceMetadata.Relationship;
+
+/**
+ * Collects resources of the top level 'included' member while a document is
+ * written. <br />
+ *
+ * By specification a compound document holds at most one resource object per
+ * type and id pair, primary data included. Visited objects are tracked by
+ * identity first, so a resource shared by many primary resources is looked up
+ * once per reference without reading its id, and by (type, id) second, so
+ * equal resources held by distinct instances are written once as well. Both
+ * remember the position a resource was collected at, so that a resource
+ * turning out to be primary data later on is dropped in constant time. <br />
+ *
+ * Relationships are walked along include paths. A resource is expanded once
+ * per path segment it is reached by, so cyclic object graphs neither recurse
+ * forever nor are walked repeatedly, and the walk never goes deeper than the
+ * maximum depth of the include.
+ *
+ * @author Ashim Jung Khadka
+ */
+final class IncludedResources {
+
+	private static final int PRIMARY = -1;
+
+	private final Map<Class<?>, ResourceMetadata> metadata;
+	private final Include include;
+	private final Map<Object, Integer> visited = new IdentityHashMap<>();
+	private final Map<Identifier, Integer> identifiers = new HashMap<>();
+	private final Map<Object, Set<Include.Node>> expanded = new IdentityHashMap<>();
+	private final List<Object> resources = new ArrayList<>();
+
+	private int removed;
+
+	IncludedResources(Map<Class<?>, ResourceMetadata> metadata) {
+		this(metadata, Include.DEFAULT);
+	}
+
+	IncludedResources(Map<Class<?>, ResourceMetadata> metadata, Include include) {
+		this.metadata = metadata;
+		this.include = include;
+	}
+
+	/**
+	 * Registers a primary resource and collects its included relationships.
+	 * Primary resources are never written to 'included'.
+	 *
+	 * @param resourceMetadata
+	 *            metadata of the resource
+	 * @param object
+	 *            primary resource
+	 */
+	void addPrimary(ResourceMetadata resourceMetadata, Object object) {
+		if (!visit(resourceMetadata, object, PRIMARY)) {
+			// Already collected through a relationship of an earlier resource
+			remove(visited.put(object, PRIMARY));
+
+			Identifier identifier = createIdentifier(resourceMetadata, object);
+
+			if (identifier != null) {
+				remove(identifiers.put(identifier, PRIMARY));
+			}
+		}
+
+		addRelationships(resourceMetadata, object, include.getRoot(), 1);
+	}
+
+	/**
+	 * Collects relationships of provided resource included by provided path
+	 * segment.
+	 *
+	 * @param node
+	 *            path segment or <code>null</code> to include relationships by
+	 *            their annotation
+	 * @param depth
+	 *            depth of the relationships
+	 */
+	private void addRelationships(ResourceMetadata resourceMetadata, Object object, Include.Node node, int depth) {
+		if (depth > include.getMaxDepth()) {
+			return;
+		}
+
+		for (Relationship relationship : resourceMetadata.getRelationships()) {
+			Include.Node child = node != null ? node.getChild(relationship.getName()) : null;
+
+			if (node != null ? child == null : !relationship.isIncluded()) {
+				continue;
+			}
+
+			Object relationshipObject = relationship.getAccessor().get(object);
+
+			if (relationshipObject instanceof List) {
+				for (Object element : (List<?>) relationshipObject) {
+					addIncluded(element, child, depth);
+				}
+			} else if (relationshipObject != null) {
+				addIncluded(relationshipObject, child, depth);
+			}
+		}
+	}
+
+	private void addIncluded(Object object, Include.Node node, int depth) {
+		if (object == null) {
+			return;
+		}
+
+		ResourceMetadata resourceMetadata = metadata.get(object.getClass());
+
+		if (resourceMetadata == null) {
+			throw new IllegalArgumentException(object.getClass().getName() + " is not registered with this resolver!");
+		}
+
+		if (visit(resourceMetadata, object, resources.size())) {
+			resources.add(object);
+		}
+
+		if (node != null && !node.isLeaf()
+				&& expanded.computeIfAbsent(object, key -> new HashSet<>()).add(node)) {
+			addRelationships(resourceMetadata, object, node, depth + 1);
+		}
+	}
+
+	/**
+	 * Marks provided resource as visited.
+	 *
+	 * @param position
+	 *            position the resource is collected at or {@link #PRIMARY}
+	 * @return <code>true</code> in case resource has not been visited yet
+	 */
+	private boolean visit(ResourceMetadata resourceMetadata, Object object, int position) {
+		if (visited.putIfAbsent(object, position) != null) {
+			return false;
+		}
+
+		Identifier identifier = createIdentifier(resourceMetadata, object);
+
+		return identifier == null || identifiers.putIfAbsent(identifier, position) == null;
+	}
+
+	/**
+	 * Leaves a tombstone at provided position of collected resources.
+	 */
+	private void remove(Integer position) {
+		if (position != null && position != PRIMARY && resources.set(position, null) != null) {
+			removed++;
+		}
+	}
+
+	private static Identifier createIdentifier(ResourceMetadata resourceMetadata, Object object) {
+		String id = resourceMetadata.getIdCodec().format(object);
+
+		return id != null ? new Identifier(resourceMetadata.getType(), id) : null;
+	}
+
+	/**
+	 * @return collected resources in order of their first reference
+	 */
+	List<Object> getResources() {
+		if (removed == 0) {
+			return resources;
+		}
+
+		List<Object> result = new ArrayList<>(resources.size() - removed);
+
+		for (Object resource : resources) {
+			if (resource != null) {
+				result.add(resource);
+			}
+		}
+
+		return result;
+	}
+
+	boolean isEmpty() {
+		return resources.size() == removed;
+	}
+
+	private static final class Identifier {
+		private final String type;
+		private final String id;
+
+		Identifier(String type, String id) {
+			this.type = type;
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * type.hashCode() + id.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof Identifier)) {
+				return false;
+			}
+
+			Identifier other = (Identifier) obj;
+			return type.equals(other.type) && id.equals(other.id);
+		}
+	}
+}
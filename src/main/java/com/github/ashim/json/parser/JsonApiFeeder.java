@@ -0,0 +1,344 @@
+package com.github.ashim.json.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.github.ashim.json.common.Constants;
+import com.github.ashim.json.exception.ValidationException;
+
+/**
+ * Push-style reader of a JSON API collection document. <br />
+ *
+ * Bytes are fed as they arrive and tokenized by a non-blocking parser, so
+ * feeding never blocks and never needs the whole document in memory. Elements
+ * of 'data' are handed to the consumer as soon as they are complete, provided
+ * 'included' precedes 'data'. Otherwise elements are kept in compact token
+ * buffers and handed over once 'included' has been read or the document ends.
+ * Elements are not cached, so relationships are resolved against included
+ * resources only. <br />
+ *
+ * Feeder is not thread-safe, chunks have to be fed one at a time.
+ *
+ * <pre>
+ * JsonApiFeeder&lt;User&gt; feeder = resolver.createFeeder(User.class, users::add);
+ * feeder.feed(chunk);
+ * ...
+ * feeder.end();
+ * </pre>
+ *
+ * @author Ashim Jung Khadka
+ */
+public class JsonApiFeeder<T> implements Closeable {
+
+	private enum Unit {
+		ELEMENT, INCLUDED, ERRORS, SKIPPED
+	}
+
+	private final ResourceResolver resolver;
+	private final ObjectMapper objectMapper;
+	private final Projection projection;
+	private final JsonParser parser;
+	private final Class<T> clazz;
+	private final Consumer<? super T> consumer;
+	private final ValidationPolicy policy;
+
+	private final List<TokenBuffer> pending = new ArrayList<>();
+	private Map<String, Object> included;
+	private byte[] scratch;
+	private long size;
+
+	private int depth;
+	private String member;
+	private boolean dataFound;
+	private boolean inData;
+	private boolean completed;
+	private boolean closed;
+
+	private Unit unit;
+	private int unitDepth;
+	private TokenBuffer buffer;
+
+	JsonApiFeeder(ResourceResolver resolver, ObjectMapper objectMapper, Projection projection, Class<T> clazz,
+			Consumer<? super T> consumer) throws IOException {
+		this.resolver = resolver;
+		this.objectMapper = objectMapper;
+		this.projection = projection;
+		this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+		this.clazz = clazz;
+		this.consumer = consumer;
+		this.policy = resolver.getValidationPolicy();
+	}
+
+	/**
+	 * Feeds remaining bytes of provided chunk, handing completed elements to
+	 * the consumer. Chunk is fully consumed and can be reused once this method
+	 * returns.
+	 *
+	 * @param chunk
+	 *            heap or direct buffer
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public void feed(ByteBuffer chunk) {
+		int length = chunk.remaining();
+
+		if (chunk.hasArray()) {
+			feed(chunk.array(), chunk.arrayOffset() + chunk.position(), length);
+		} else {
+			if (scratch == null || scratch.length < length) {
+				scratch = new byte[length];
+			}
+
+			chunk.duplicate().get(scratch, 0, length);
+			feed(scratch, 0, length);
+		}
+
+		chunk.position(chunk.limit());
+	}
+
+	/**
+	 * Feeds provided bytes, handing completed elements to the consumer.
+	 *
+	 * @param data
+	 *            input bytes
+	 * @param offset
+	 *            offset of the first byte
+	 * @param length
+	 *            number of bytes
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public void feed(byte[] data, int offset, int length) {
+		ensureOpen();
+
+		try {
+			ValidatingParser.ensureSize(size + length, size, policy);
+			size += length;
+
+			((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(data, offset, offset + length);
+			drain();
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		} catch (Exception e) {
+			close();
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Signals end of input and hands remaining elements to the consumer.
+	 *
+	 * @throws RuntimeException
+	 *             in case document is incomplete or conversion fails
+	 */
+	public void end() {
+		ensureOpen();
+
+		try {
+			parser.getNonBlockingInputFeeder().endOfInput();
+			drain();
+
+			if (!dataFound) {
+				throw new IllegalArgumentException("Object is missing 'data' node!");
+			}
+
+			if (!completed) {
+				throw new IllegalArgumentException("Unexpected end of document!");
+			}
+
+			if (included == null) {
+				included = new HashMap<>();
+				emitPending();
+			}
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		} finally {
+			close();
+		}
+	}
+
+	private void ensureOpen() {
+		if (closed) {
+			throw new IllegalStateException("Feeder is closed!");
+		}
+	}
+
+	private void drain() throws IOException, IllegalAccessException, InstantiationException {
+		JsonToken token;
+
+		while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+			handle(token);
+		}
+	}
+
+	private void handle(JsonToken token) throws IOException, IllegalAccessException, InstantiationException {
+		if (token.isStructStart()) {
+			if (++depth > policy.getMaxDepth()) {
+				throw new ValidationException(
+						"Document exceeds maximum nesting depth of " + policy.getMaxDepth() + "!",
+						parser.getTokenLocation().getByteOffset());
+			}
+		} else if (token.isStructEnd()) {
+			depth--;
+		} else if ((token == JsonToken.VALUE_STRING || token == JsonToken.FIELD_NAME)
+				&& policy.getMaxStringLength() != Integer.MAX_VALUE
+				&& parser.getTextLength() > policy.getMaxStringLength()) {
+			throw new ValidationException(
+					"String exceeds maximum length of " + policy.getMaxStringLength() + " characters!",
+					parser.getTokenLocation().getByteOffset());
+		}
+
+		if (unit != null) {
+			if (buffer != null) {
+				buffer.copyCurrentEvent(parser);
+			}
+
+			if (token.isStructEnd() && depth < unitDepth) {
+				completeUnit();
+			}
+
+			return;
+		}
+
+		if (completed) {
+			throw new IllegalArgumentException("Unexpected content after end of document!");
+		}
+
+		if (depth == 0) {
+			// End of document
+			completed = token == JsonToken.END_OBJECT;
+			return;
+		}
+
+		if (depth == 1 && token == JsonToken.START_OBJECT) {
+			// Start of document
+			return;
+		}
+
+		if (depth == 1 && token == JsonToken.FIELD_NAME) {
+			member = parser.getCurrentName();
+			return;
+		}
+
+		if (inData) {
+			if (token == JsonToken.END_ARRAY) {
+				inData = false;
+			} else if (token.isStructStart()) {
+				startUnit(token == JsonToken.START_OBJECT ? Unit.ELEMENT : Unit.SKIPPED);
+			}
+
+			return;
+		}
+
+		if (depth == 1 && token == JsonToken.START_ARRAY && member == null) {
+			throw new IllegalArgumentException("Object is missing 'data' node!");
+		}
+
+		if (Constants.DATA.equals(member)) {
+			if (!token.isStructStart()) {
+				throw new IllegalArgumentException("'data' node cannot be simple attribute!");
+			}
+
+			if (token != JsonToken.START_ARRAY) {
+				throw new IllegalArgumentException("'data' node is not an array!");
+			}
+
+			dataFound = true;
+			inData = true;
+		} else if (Constants.INCLUDED.equals(member) && token == JsonToken.START_ARRAY) {
+			startUnit(Unit.INCLUDED);
+		} else if (Constants.ERRORS.equals(member) && token.isStructStart()) {
+			startUnit(Unit.ERRORS);
+		} else if (token.isStructStart()) {
+			startUnit(Unit.SKIPPED);
+		}
+	}
+
+	private void startUnit(Unit unit) throws IOException {
+		this.unit = unit;
+		this.unitDepth = depth;
+
+		if (unit != Unit.SKIPPED) {
+			buffer = new TokenBuffer(parser);
+			buffer.copyCurrentEvent(parser);
+		}
+	}
+
+	private void completeUnit() throws IOException, IllegalAccessException, InstantiationException {
+		TokenBuffer unitBuffer = buffer;
+		Unit completedUnit = unit;
+
+		unit = null;
+		buffer = null;
+
+		switch (completedUnit) {
+		case ELEMENT:
+			if (included != null) {
+				emit(unitBuffer);
+			} else {
+				pending.add(unitBuffer);
+			}
+			break;
+		case INCLUDED:
+			JsonParser includedParser = unitBuffer.asParser(objectMapper);
+			includedParser.nextToken();
+			included = resolver.parseIncluded(includedParser, projection);
+			emitPending();
+			break;
+		case ERRORS:
+			JsonParser errorsParser = unitBuffer.asParser(objectMapper);
+			errorsParser.nextToken();
+			ValidationUtils.ensureNotError(errorsParser, resolver.getErrorsReader());
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void emitPending() throws IOException, IllegalAccessException, InstantiationException {
+		for (TokenBuffer element : pending) {
+			emit(element);
+		}
+
+		pending.clear();
+	}
+
+	private void emit(TokenBuffer element) throws IOException, IllegalAccessException, InstantiationException {
+		JsonParser elementParser = element.asParser(objectMapper);
+		elementParser.nextToken();
+		consumer.accept(resolver.readElement(elementParser, clazz, included, false, projection));
+	}
+
+	/**
+	 * Releases the parser, remaining input is discarded.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		pending.clear();
+
+		try {
+			parser.close();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
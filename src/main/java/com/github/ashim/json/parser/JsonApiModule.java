@@ -0,0 +1,338 @@
+package com.github.ashim.json.parser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.CollectionType;
+
+/**
+ * Jackson module converting JsonType classes to and from JSON API documents.
+ * <br />
+ *
+ * Once registered, a root level resource (or collection of resources) written
+ * by the owning <code>ObjectMapper</code> produces a compound document, and
+ * reading a resource type (or collection of it) consumes one. Both directions
+ * stream through the mapper's own generator/parser in a single pass. Nested
+ * resources are written and read as plain resource objects. <br />
+ *
+ * Attributes are bound using a copy of the owning mapper taken at
+ * registration, so modules affecting attribute (de)serialization should be
+ * registered before this one.
+ *
+ * <pre>
+ * ObjectMapper mapper = new ObjectMapper();
+ * mapper.registerModule(new JsonApiModule(User.class, Role.class));
+ * </pre>
+ *
+ * @author Ashim Jung Khadka
+ */
+public class JsonApiModule extends Module {
+
+	private static final Version VERSION = new Version(1, 0, 0, null, "com.github.ashim.json",
+			"json-org-converter");
+
+	private final Class<?>[] classes;
+
+	public JsonApiModule(Class<?>... classes) {
+		this.classes = classes;
+	}
+
+	@Override
+	public String getModuleName() {
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	public Version version() {
+		return VERSION;
+	}
+
+	@Override
+	public void setupModule(SetupContext context) {
+		ObjectCodec owner = context.getOwner();
+
+		if (!(owner instanceof ObjectMapper)) {
+			throw new IllegalStateException("JsonApiModule can only be registered with an ObjectMapper!");
+		}
+
+		ResourceResolver resolver = new ResourceResolver(((ObjectMapper) owner).copy(), classes);
+
+		context.addBeanSerializerModifier(new DocumentSerializerModifier(resolver));
+		context.addBeanDeserializerModifier(new DocumentDeserializerModifier(resolver));
+	}
+
+	/**
+	 * Checks whether parser, positioned at a START_OBJECT token, is reading a
+	 * root level value.
+	 */
+	private static boolean isRoot(JsonParser parser) {
+		JsonStreamContext context = parser.getParsingContext();
+		return context.inRoot() || (context.getParent() != null && context.getParent().inRoot());
+	}
+
+	private static class DocumentSerializerModifier extends BeanSerializerModifier {
+
+		private final ResourceResolver resolver;
+
+		DocumentSerializerModifier(ResourceResolver resolver) {
+			this.resolver = resolver;
+		}
+
+		@Override
+		public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+				JsonSerializer<?> serializer) {
+			if (resolver.isRegisteredType(beanDesc.getBeanClass())) {
+				return new DocumentSerializer(resolver);
+			}
+
+			return serializer;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public JsonSerializer<?> modifyCollectionSerializer(SerializationConfig config, CollectionType valueType,
+				BeanDescription beanDesc, JsonSerializer<?> serializer) {
+			if (resolver.isRegisteredType(valueType.getContentType().getRawClass())) {
+				return new CollectionDocumentSerializer(resolver, (JsonSerializer<Object>) serializer);
+			}
+
+			return serializer;
+		}
+	}
+
+	private static class DocumentDeserializerModifier extends BeanDeserializerModifier {
+
+		private final ResourceResolver resolver;
+
+		DocumentDeserializerModifier(ResourceResolver resolver) {
+			this.resolver = resolver;
+		}
+
+		@Override
+		public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+				JsonDeserializer<?> deserializer) {
+			if (resolver.isRegisteredType(beanDesc.getBeanClass())) {
+				return new DocumentDeserializer(resolver, beanDesc.getBeanClass());
+			}
+
+			return deserializer;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public JsonDeserializer<?> modifyCollectionDeserializer(DeserializationConfig config, CollectionType type,
+				BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+			if (resolver.isRegisteredType(type.getContentType().getRawClass())) {
+				return new CollectionDocumentDeserializer(resolver, type, (JsonDeserializer<Object>) deserializer);
+			}
+
+			return deserializer;
+		}
+	}
+
+	/**
+	 * Writes a root level resource as a document, nested ones as resource
+	 * objects.
+	 */
+	private static class DocumentSerializer extends StdSerializer<Object> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient ResourceResolver resolver;
+
+		DocumentSerializer(ResourceResolver resolver) {
+			super(Object.class);
+			this.resolver = resolver;
+		}
+
+		@Override
+		public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			if (gen.getOutputContext().inRoot()) {
+				resolver.writeDocument(value, gen);
+			} else {
+				resolver.writeResource(value, gen);
+			}
+		}
+	}
+
+	/**
+	 * Writes a root level collection of resources as a collection document,
+	 * nested collections are left to the default serializer.
+	 */
+	private static class CollectionDocumentSerializer extends StdSerializer<Collection<?>>
+			implements ContextualSerializer {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient ResourceResolver resolver;
+		private final JsonSerializer<Object> delegate;
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		CollectionDocumentSerializer(ResourceResolver resolver, JsonSerializer<Object> delegate) {
+			super((Class) Collection.class);
+			this.resolver = resolver;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void serialize(Collection<?> value, JsonGenerator gen, SerializerProvider provider)
+				throws IOException {
+			if (gen.getOutputContext().inRoot()) {
+				resolver.writeDocumentCollection(value, gen);
+			} else {
+				delegate.serialize(value, gen, provider);
+			}
+		}
+
+		@Override
+		public boolean isEmpty(SerializerProvider provider, Collection<?> value) {
+			return value == null || value.isEmpty();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+				throws JsonMappingException {
+			JsonSerializer<?> contextual = provider.handleSecondaryContextualization(delegate, property);
+
+			if (contextual == delegate) {
+				return this;
+			}
+
+			return new CollectionDocumentSerializer(resolver, (JsonSerializer<Object>) contextual);
+		}
+	}
+
+	/**
+	 * Reads a root level document into its resource, nested resource objects
+	 * are read on their own.
+	 */
+	private static class DocumentDeserializer extends StdDeserializer<Object> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient ResourceResolver resolver;
+
+		DocumentDeserializer(ResourceResolver resolver, Class<?> clazz) {
+			super(clazz);
+			this.resolver = resolver;
+		}
+
+		@Override
+		public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			if (p.getCurrentToken() != JsonToken.START_OBJECT) {
+				return ctxt.handleUnexpectedToken(handledType(), p);
+			}
+
+			try {
+				if (isRoot(p)) {
+					return resolver.readDocument(p, handledType());
+				}
+
+				return resolver.readElement(p, handledType(), new HashMap<String, Object>(), false);
+			} catch (IllegalAccessException | InstantiationException e) {
+				throw ctxt.instantiationException(handledType(), e);
+			}
+		}
+	}
+
+	/**
+	 * Reads a root level collection document, anything else is left to the
+	 * default deserializer.
+	 */
+	private static class CollectionDocumentDeserializer extends StdDeserializer<Object>
+			implements ContextualDeserializer, ResolvableDeserializer {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient ResourceResolver resolver;
+		private final CollectionType type;
+		private final JsonDeserializer<Object> delegate;
+
+		CollectionDocumentDeserializer(ResourceResolver resolver, CollectionType type,
+				JsonDeserializer<Object> delegate) {
+			super(type);
+			this.resolver = resolver;
+			this.type = type;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			if (p.getCurrentToken() != JsonToken.START_OBJECT || !isRoot(p)) {
+				return delegate.deserialize(p, ctxt);
+			}
+
+			try {
+				Collection<Object> result = createCollection();
+				resolver.readDocumentCollection(p, type.getContentType().getRawClass(), result);
+				return result;
+			} catch (ReflectiveOperationException e) {
+				throw ctxt.instantiationException(type.getRawClass(), e);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private Collection<Object> createCollection() throws ReflectiveOperationException {
+			Class<?> rawClass = type.getRawClass();
+
+			if (rawClass.isAssignableFrom(ArrayList.class)) {
+				return new ArrayList<>();
+			} else if (rawClass.isAssignableFrom(LinkedHashSet.class)) {
+				return new LinkedHashSet<>();
+			} else if (rawClass.isAssignableFrom(TreeSet.class)) {
+				return new TreeSet<>();
+			}
+
+			return (Collection<Object>) rawClass.getDeclaredConstructor().newInstance();
+		}
+
+		@Override
+		public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+			if (delegate instanceof ResolvableDeserializer) {
+				((ResolvableDeserializer) delegate).resolve(ctxt);
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property)
+				throws JsonMappingException {
+			JsonDeserializer<?> contextual = ctxt.handleSecondaryContextualization(delegate, property, type);
+
+			if (contextual == delegate) {
+				return this;
+			}
+
+			return new CollectionDocumentDeserializer(resolver, type, (JsonDeserializer<Object>) contextual);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.github.ashim.json.parser;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * To-many relationship resolved on first access. <br />
+ *
+ * Keeps the relationship's 'data' node and the included index of the
+ * document it was read from, and binds target objects only once any element
+ * or the size of the list is requested. Until then both stay reachable from
+ * the list, i.e. the whole included index of the document is retained as long
+ * as any unresolved list of it is. Binding happens exactly once, also under
+ * concurrent first access, and releases the node and the index. Afterwards the
+ * list behaves like a plain mutable list. <br />
+ *
+ * Linkage objects of resources missing from the included index are not shared
+ * with other relationships, so that the index is never modified after the
+ * document has been read.
+ *
+ * @author Ashim Jung Khadka
+ */
+final class LazyRelationshipList extends AbstractList<Object> implements RandomAccess {
+
+	private final ResourceResolver resolver;
+	private final Class<?> type;
+
+	private JsonNode data;
+	private Map<String, Object> included;
+	private volatile List<Object> elements;
+
+	LazyRelationshipList(ResourceResolver resolver, JsonNode data, Class<?> type, Map<String, Object> included) {
+		this.resolver = resolver;
+		this.data = data;
+		this.type = type;
+		this.included = included;
+	}
+
+	private List<Object> elements() {
+		List<Object> result = elements;
+
+		if (result == null) {
+			synchronized (this) {
+				result = elements;
+
+				if (result == null) {
+					result = resolver.resolveLinkages(data, type, included);
+					elements = result;
+
+					// Document is no longer needed
+					data = null;
+					included = null;
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return <code>true</code> in case elements have been bound already
+	 */
+	boolean isResolved() {
+		return elements != null;
+	}
+
+	@Override
+	public Object get(int index) {
+		return elements().get(index);
+	}
+
+	@Override
+	public int size() {
+		return elements().size();
+	}
+
+	@Override
+	public Object set(int index, Object element) {
+		return elements().set(index, element);
+	}
+
+	@Override
+	public void add(int index, Object element) {
+		elements().add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public Object remove(int index) {
+		Object result = elements().remove(index);
+		modCount++;
+		return result;
+	}
+}
@@ -0,0 +1,106 @@
+package com.github.ashim.json.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Input stream reading a file through memory mappings. <br />
+ *
+ * The file is mapped in regions of up to {@value #REGION_SIZE} bytes, one at
+ * a time, so files larger than a single mapping can be read and bytes are
+ * copied from the page cache straight into the reader's buffer, never into a
+ * heap copy of the whole file.
+ *
+ * @author Ashim Jung Khadka
+ */
+final class MappedFileInputStream extends InputStream {
+
+	private static final int REGION_SIZE = 1 << 30;
+
+	private final FileChannel channel;
+	private final long size;
+
+	private long position;
+	private MappedByteBuffer region;
+
+	private MappedFileInputStream(FileChannel channel) throws IOException {
+		this.channel = channel;
+		this.size = channel.size();
+	}
+
+	/**
+	 * Opens provided file for reading.
+	 *
+	 * @param path
+	 *            file path
+	 * @return stream over file contents
+	 * @throws IOException
+	 *             in case file cannot be opened
+	 */
+	static MappedFileInputStream open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+		try {
+			return new MappedFileInputStream(channel);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Makes sure current region has remaining bytes, mapping the next one if
+	 * needed.
+	 *
+	 * @return <code>false</code> in case end of file is reached
+	 */
+	private boolean ensureRegion() throws IOException {
+		if (region != null && region.hasRemaining()) {
+			return true;
+		}
+
+		if (position >= size) {
+			return false;
+		}
+
+		long length = Math.min(REGION_SIZE, size - position);
+		region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+		position += length;
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		return ensureRegion() ? region.get() & 0xFF : -1;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+
+		if (!ensureRegion()) {
+			return -1;
+		}
+
+		int count = Math.min(len, region.remaining());
+		region.get(b, off, count);
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return region != null ? region.remaining() : 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		region = null;
+		channel.close();
+	}
+}
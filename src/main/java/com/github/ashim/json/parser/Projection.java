@@ -0,0 +1,159 @@
+package com.github.ashim.json.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Readers and writer of registered resource classes for a single fieldset.
+ * <br />
+ *
+ * Attributes left out by the fieldset are removed from the bean serializers
+ * and deserializers of the classes, so they are neither written nor bound.
+ * Projections are built once per fieldset and cached by the resolver.
+ *
+ * @author Ashim Jung Khadka
+ */
+final class Projection {
+
+	private final FieldSet fieldSet;
+	private final ObjectWriter writer;
+	private final Map<Class<?>, ObjectReader> readers;
+
+	private Projection(FieldSet fieldSet, ObjectWriter writer, Map<Class<?>, ObjectReader> readers) {
+		this.fieldSet = fieldSet;
+		this.writer = writer;
+		this.readers = readers;
+	}
+
+	/**
+	 * Creates projection of registered classes.
+	 *
+	 * @param objectMapper
+	 *            mapper configuring attribute (de)serialization
+	 * @param metadata
+	 *            registered classes
+	 * @param fieldSet
+	 *            requested fields
+	 * @return projection
+	 */
+	static Projection create(ObjectMapper objectMapper, Map<Class<?>, ResourceMetadata> metadata,
+			FieldSet fieldSet) {
+		return create(objectMapper, metadata, fieldSet, null);
+	}
+
+	/**
+	 * Creates projection of registered classes, writing resources through
+	 * provided cache.
+	 *
+	 * @param cache
+	 *            cache of encoded resources or <code>null</code>
+	 * @return projection
+	 */
+	static Projection create(ObjectMapper objectMapper, Map<Class<?>, ResourceMetadata> metadata, FieldSet fieldSet,
+			FragmentCache cache) {
+		// Registered classes are written as resource objects in a single pass
+		ObjectMapper writerMapper = objectMapper.copy();
+		writerMapper.registerModule(new SimpleModule().setSerializerModifier(
+				new ResourceSerializerModifier(metadata, fieldSet, cache, writerMapper.getFactory())));
+		ObjectWriter writer = writerMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+		Map<Class<?>, ObjectReader> readers = new HashMap<>();
+
+		if (fieldSet.isEmpty()) {
+			for (ResourceMetadata resourceMetadata : metadata.values()) {
+				readers.put(resourceMetadata.getResourceClass(), resourceMetadata.getAttributesReader());
+			}
+		} else {
+			ObjectMapper readerMapper = objectMapper.copy();
+			readerMapper.registerModule(
+					new SimpleModule().setDeserializerModifier(new AttributesDeserializerModifier(metadata, fieldSet)));
+
+			for (ResourceMetadata resourceMetadata : metadata.values()) {
+				readers.put(resourceMetadata.getResourceClass(),
+						readerMapper.readerFor(resourceMetadata.getResourceClass()));
+			}
+		}
+
+		return new Projection(fieldSet, writer, Collections.unmodifiableMap(readers));
+	}
+
+	public FieldSet getFieldSet() {
+		return fieldSet;
+	}
+
+	/**
+	 * @return writer writing registered classes as resource objects
+	 */
+	public ObjectWriter getWriter() {
+		return writer;
+	}
+
+	/**
+	 * @param resourceMetadata
+	 *            resource class
+	 * @return reader binding 'attributes' object to the resource class
+	 */
+	public ObjectReader getReader(ResourceMetadata resourceMetadata) {
+		return readers.get(resourceMetadata.getResourceClass());
+	}
+
+	/**
+	 * Turns attributes left out by the fieldset into ignored properties.
+	 */
+	private static class AttributesDeserializerModifier extends BeanDeserializerModifier {
+
+		private final Map<Class<?>, ResourceMetadata> metadata;
+		private final FieldSet fieldSet;
+
+		AttributesDeserializerModifier(Map<Class<?>, ResourceMetadata> metadata, FieldSet fieldSet) {
+			this.metadata = metadata;
+			this.fieldSet = fieldSet;
+		}
+
+		@Override
+		public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+				BeanDeserializerBuilder builder) {
+			ResourceMetadata resourceMetadata = metadata.get(beanDesc.getBeanClass());
+			Set<String> fields = resourceMetadata != null ? fieldSet.getFields(resourceMetadata.getType()) : null;
+
+			if (fields == null) {
+				return builder;
+			}
+
+			List<String> excluded = new ArrayList<>();
+			Iterator<SettableBeanProperty> properties = builder.getProperties();
+
+			while (properties.hasNext()) {
+				String name = properties.next().getName();
+
+				if (!fields.contains(name)) {
+					excluded.add(name);
+				}
+			}
+
+			for (String name : excluded) {
+				builder.removeProperty(new PropertyName(name));
+				builder.addIgnorable(name);
+			}
+
+			return builder;
+		}
+	}
+}
@@ -2,6 +2,7 @@ package com.github.ashim.json.parser;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.List;
@@ -66,4 +67,38 @@ public class ReflectionUtils {
 
 		return targetType;
 	}
+
+	/**
+	 * Creates new instance of provided class through its no-arg constructor.
+	 * Unchecked exceptions thrown by the constructor are propagated as they
+	 * are, like with the deprecated <code>Class.newInstance()</code>.
+	 *
+	 * @param clazz
+	 *            class to instantiate
+	 * @return new instance
+	 * @throws IllegalAccessException
+	 *             in case constructor is not accessible
+	 * @throws InstantiationException
+	 *             in case class has no no-arg constructor, is abstract or its
+	 *             constructor throws a checked exception
+	 */
+	public static <T> T newInstance(Class<T> clazz) throws IllegalAccessException, InstantiationException {
+		try {
+			return clazz.getDeclaredConstructor().newInstance();
+		} catch (NoSuchMethodException e) {
+			throw (InstantiationException) new InstantiationException(
+					clazz.getName() + " has no no-arg constructor!").initCause(e);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw (InstantiationException) new InstantiationException(
+					"Constructor of " + clazz.getName() + " failed!").initCause(cause);
+		}
+	}
 }
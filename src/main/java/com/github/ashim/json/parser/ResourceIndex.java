@@ -0,0 +1,76 @@
+package com.github.ashim.json.parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.github.ashim.json.codec.ResourceCodec;
+
+/**
+ * Reads resource classes listed in the {@link ResourceCodec#INDEX} files of a
+ * class loader. <br />
+ *
+ * Each line holds the binary name of a JsonType class, blank lines and lines
+ * starting with '#' are ignored. Classes listed by several files are loaded
+ * once.
+ *
+ * @author Ashim Jung Khadka
+ */
+final class ResourceIndex {
+
+	private ResourceIndex() {
+	}
+
+	/**
+	 * Loads classes listed by all index files visible to provided loader.
+	 *
+	 * @param loader
+	 *            class loader
+	 * @return resource classes in index order
+	 * @throws IOException
+	 *             in case index cannot be read
+	 * @throws IllegalArgumentException
+	 *             in case there is no index or listed class cannot be loaded
+	 */
+	static Class<?>[] load(ClassLoader loader) throws IOException {
+		Set<String> names = new LinkedHashSet<>();
+		Enumeration<URL> indexes = loader.getResources(ResourceCodec.INDEX);
+
+		if (!indexes.hasMoreElements()) {
+			throw new IllegalArgumentException("No " + ResourceCodec.INDEX + " found on the classpath!");
+		}
+
+		while (indexes.hasMoreElements()) {
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(indexes.nextElement().openStream(), StandardCharsets.UTF_8))) {
+				String line;
+
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+
+					if (!line.isEmpty() && !line.startsWith("#")) {
+						names.add(line);
+					}
+				}
+			}
+		}
+
+		Class<?>[] classes = new Class<?>[names.size()];
+		int index = 0;
+
+		for (String name : names) {
+			try {
+				classes[index++] = Class.forName(name, false, loader);
+			} catch (ClassNotFoundException e) {
+				throw new IllegalArgumentException("Indexed resource class " + name + " cannot be loaded!", e);
+			}
+		}
+
+		return classes;
+	}
+}
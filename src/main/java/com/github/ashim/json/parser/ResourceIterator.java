@@ -0,0 +1,302 @@
+package com.github.ashim.json.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.github.ashim.json.common.Constants;
+
+/**
+ * Iterates over the 'data' member of a JSON API document one resource at a
+ * time. <br />
+ *
+ * Top level members are scanned until 'data' is reached. When 'included'
+ * precedes 'data', elements are read straight from the underlying parser and
+ * memory is bounded by one element plus the included index. Otherwise 'data'
+ * is kept in a compact token buffer until the rest of the document has been
+ * scanned.
+ *
+ * @author Ashim Jung Khadka
+ */
+class ResourceIterator<T> implements Iterator<T>, Closeable {
+
+	private final ResourceResolver resolver;
+	private final ObjectMapper objectMapper;
+	private final Projection projection;
+	private final JsonParser parser;
+	private final Class<T> clazz;
+	private final boolean collection;
+	private final boolean cache;
+	private final boolean embedded;
+	private final IdentityMap identities;
+	private final T target;
+
+	private Map<String, Object> included;
+	private JsonParser dataParser;
+	private T next;
+	private boolean finished;
+
+	/**
+	 * Creates iterator and scans provided document up to its 'data' member.
+	 *
+	 * @param resolver
+	 *            resolver converting resources
+	 * @param objectMapper
+	 *            mapper used to read nodes
+	 * @param projection
+	 *            readers of requested fields
+	 * @param parser
+	 *            document parser
+	 * @param clazz
+	 *            target type
+	 * @param collection
+	 *            whether 'data' must hold an array or an object
+	 * @param cache
+	 *            whether converted elements are added to the included index,
+	 *            so that later relationships resolve to them
+	 * @param embedded
+	 *            whether parser is owned by the caller and positioned at the
+	 *            document's START_OBJECT token. Such parser is never closed and
+	 *            is left at the document's END_OBJECT token once iteration
+	 *            completes
+	 */
+	ResourceIterator(ResourceResolver resolver, ObjectMapper objectMapper, Projection projection, JsonParser parser,
+			Class<T> clazz, boolean collection, boolean cache, boolean embedded)
+			throws IOException, IllegalAccessException, InstantiationException {
+		this(resolver, objectMapper, projection, parser, clazz, collection, cache, embedded, null, null);
+	}
+
+	/**
+	 * Creates iterator reading resources into existing instances.
+	 *
+	 * @param identities
+	 *            instances to update, matched by type and id, or
+	 *            <code>null</code>
+	 * @param target
+	 *            instance the single 'data' element is read into or
+	 *            <code>null</code>
+	 */
+	ResourceIterator(ResourceResolver resolver, ObjectMapper objectMapper, Projection projection, JsonParser parser,
+			Class<T> clazz, boolean collection, boolean cache, boolean embedded, IdentityMap identities, T target)
+			throws IOException, IllegalAccessException, InstantiationException {
+		this.resolver = resolver;
+		this.objectMapper = objectMapper;
+		this.projection = projection;
+		this.parser = parser;
+		this.clazz = clazz;
+		this.collection = collection;
+		this.cache = cache;
+		this.embedded = embedded;
+		this.identities = identities;
+		this.target = target;
+
+		try {
+			init();
+		} catch (Exception e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Scans top level members up to the start of the 'data' member.
+	 */
+	private void init() throws IOException, IllegalAccessException, InstantiationException {
+		JsonToken start = embedded ? parser.getCurrentToken() : parser.nextToken();
+
+		if (start != JsonToken.START_OBJECT) {
+			throw new IllegalArgumentException("Object is missing 'data' node!");
+		}
+
+		TokenBuffer dataBuffer = null;
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+
+			if (Constants.DATA.equals(field)) {
+				ensureData(token);
+
+				if (included != null) {
+					// Included index is complete, elements can be read in place
+					dataParser = parser;
+					return;
+				}
+
+				dataBuffer = new TokenBuffer(parser);
+				dataBuffer.copyCurrentStructure(parser);
+			} else if (Constants.INCLUDED.equals(field) && token == JsonToken.START_ARRAY) {
+				included = resolver.parseIncluded(parser, projection, identities);
+			} else if (Constants.ERRORS.equals(field)) {
+				ValidationUtils.ensureNotError(parser, resolver.getErrorsReader());
+			} else {
+				parser.skipChildren();
+			}
+		}
+
+		if (dataBuffer == null) {
+			throw new IllegalArgumentException("Object is missing 'data' node!");
+		}
+
+		if (included == null) {
+			included = new HashMap<>();
+		}
+
+		if (!embedded) {
+			parser.close();
+		}
+
+		dataParser = dataBuffer.asParser(parser);
+		dataParser.nextToken();
+	}
+
+	private void ensureData(JsonToken token) {
+		if (!token.isStructStart()) {
+			throw new IllegalArgumentException("'data' node cannot be simple attribute!");
+		}
+
+		if (collection && token != JsonToken.START_ARRAY) {
+			throw new IllegalArgumentException("'data' node is not an array!");
+		}
+
+		if (!collection && token == JsonToken.START_ARRAY) {
+			throw new IllegalArgumentException("'data' node is not an object!");
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next != null) {
+			return true;
+		}
+
+		if (finished) {
+			return false;
+		}
+
+		try {
+			if (nextElement()) {
+				next = resolver.readElement(dataParser, clazz, included, cache, projection, identities, target);
+				return true;
+			}
+
+			finish();
+			return false;
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		} catch (Exception e) {
+			close();
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Copies up to provided number of remaining elements into a token buffer,
+	 * so that they can be read elsewhere, e.g. on another thread.
+	 *
+	 * @param size
+	 *            maximum number of elements
+	 * @return buffered elements or <code>null</code> in case there are no
+	 *         elements left
+	 */
+	TokenBuffer nextChunk(int size) {
+		TokenBuffer chunk = null;
+
+		try {
+			for (int count = 0; count < size && !finished; count++) {
+				if (!nextElement()) {
+					finish();
+					break;
+				}
+
+				if (chunk == null) {
+					chunk = new TokenBuffer(dataParser);
+				}
+
+				chunk.copyCurrentStructure(dataParser);
+			}
+
+			return chunk;
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		} catch (Exception e) {
+			close();
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Moves data parser to the START_OBJECT token of the next element.
+	 *
+	 * @return <code>true</code> in case there is a next element
+	 */
+	private boolean nextElement() throws IOException {
+		JsonToken token = collection ? dataParser.nextToken() : dataParser.getCurrentToken();
+
+		while (collection && token != null && token != JsonToken.END_ARRAY && token != JsonToken.START_OBJECT) {
+			dataParser.skipChildren();
+			token = dataParser.nextToken();
+		}
+
+		return token == JsonToken.START_OBJECT;
+	}
+
+	/**
+	 * @return included resources indexed by their identifier
+	 */
+	Map<String, Object> getIncluded() {
+		return included;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		T result = next;
+		next = null;
+		return result;
+	}
+
+	/**
+	 * Completes iteration. Embedded parser read in place is moved past the
+	 * members following 'data', up to the document's END_OBJECT token.
+	 */
+	private void finish() throws IOException {
+		if (embedded && dataParser == parser) {
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				parser.nextToken();
+				parser.skipChildren();
+			}
+		}
+
+		close();
+	}
+
+	@Override
+	public void close() {
+		finished = true;
+
+		try {
+			if (!embedded) {
+				parser.close();
+			}
+
+			if (dataParser != null && dataParser != parser) {
+				dataParser.close();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,326 @@
+package com.github.ashim.json.parser;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.ashim.json.annotations.JsonId;
+import com.github.ashim.json.annotations.JsonRelation;
+import com.github.ashim.json.annotations.JsonType;
+import com.github.ashim.json.annotations.JsonVersion;
+import com.github.ashim.json.codec.RelationshipCodec;
+import com.github.ashim.json.codec.ResourceCodec;
+
+/**
+ * Immutable description of a resource class, computed once when a resolver is
+ * created. <br />
+ *
+ * Holds the JSON API type name, id field and relationship fields of the class
+ * so that conversion never has to look at annotations again. Metadata is read
+ * from the generated {@link ResourceCodec} of the class when present, and
+ * discovered through reflection otherwise.
+ *
+ * @author Ashim Jung Khadka
+ */
+final class ResourceMetadata {
+
+	private final Class<?> resourceClass;
+	private final String type;
+	private final SerializedString encodedType;
+	private final Supplier<Object> factory;
+	private final FieldAccessor idAccessor;
+	private final IdCodec idCodec;
+	private final FieldAccessor versionAccessor;
+	private final ObjectReader attributesReader;
+	private final List<Relationship> relationships;
+	private final Map<String, Relationship> relationshipMap;
+
+	private ResourceMetadata(Class<?> resourceClass, String type, Supplier<Object> factory, FieldAccessor idAccessor,
+			IdCodec idCodec, FieldAccessor versionAccessor, ObjectReader attributesReader,
+			List<Relationship> relationships) {
+		this.resourceClass = resourceClass;
+		this.type = type;
+		this.encodedType = new SerializedString(type);
+		this.factory = factory;
+		this.idAccessor = idAccessor;
+		this.idCodec = idCodec;
+		this.versionAccessor = versionAccessor;
+		this.attributesReader = attributesReader;
+		this.relationships = Collections.unmodifiableList(relationships);
+
+		Map<String, Relationship> relationshipMap = new HashMap<>();
+		for (Relationship relationship : relationships) {
+			relationshipMap.put(relationship.getName(), relationship);
+		}
+		this.relationshipMap = Collections.unmodifiableMap(relationshipMap);
+	}
+
+	/**
+	 * Collects metadata of provided resource class.
+	 *
+	 * @param clazz
+	 *            resource class
+	 * @param objectMapper
+	 *            mapper used to bind resource attributes
+	 * @param codec
+	 *            generated codec of the class or <code>null</code>, see
+	 *            {@link #loadCodecs(Class...)}
+	 * @return resource metadata
+	 * @throws IllegalArgumentException
+	 *             in case class is not annotated with JsonType, has no JsonId
+	 *             field or its type is not supported
+	 */
+	static ResourceMetadata create(Class<?> clazz, ObjectMapper objectMapper, ResourceCodec<?> codec) {
+		if (!clazz.isAnnotationPresent(JsonType.class)) {
+			throw new IllegalArgumentException("All resource classes must be annotated with JsonType annotation!");
+		}
+
+		if (codec != null) {
+			return create(codec, objectMapper);
+		}
+
+		// collecting JsonRelation fields
+		List<Relationship> relationships = new ArrayList<>();
+
+		for (Field relationshipField : ReflectionUtils.getAnnotatedFields(clazz, JsonRelation.class)) {
+			relationships.add(new Relationship(relationshipField));
+		}
+
+		// collecting Id fields
+		List<Field> idAnnotatedFields = ReflectionUtils.getAnnotatedFields(clazz, JsonId.class);
+
+		if (idAnnotatedFields.isEmpty()) {
+			throw new IllegalArgumentException(
+					"All resource classes must have a field annotated with the @JsonId annotation");
+		}
+
+		Field idField = idAnnotatedFields.get(0);
+
+		return new ResourceMetadata(clazz, ReflectionUtils.getJsonTypeName(clazz), null,
+				FieldAccessor.create(idField), IdCodec.create(idField), createVersionAccessor(clazz),
+				objectMapper.readerFor(clazz), relationships);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ResourceMetadata create(ResourceCodec<T> codec, ObjectMapper objectMapper) {
+		List<Relationship> relationships = new ArrayList<>();
+
+		for (RelationshipCodec<T> relationship : codec.getRelationships()) {
+			relationships.add(new Relationship(relationship));
+		}
+
+		FieldAccessor idAccessor = FieldAccessor.of(codec.getIdName(), target -> codec.getId((T) target),
+				(target, id) -> codec.setId((T) target, id));
+		FieldAccessor versionAccessor = codec.getVersionName() == null ? null
+				: FieldAccessor.of(codec.getVersionName(), target -> codec.getVersion((T) target),
+						(target, version) -> codec.setVersion((T) target, version));
+
+		return new ResourceMetadata(codec.getResourceClass(), codec.getType(), codec::newInstance, idAccessor,
+				IdCodec.create(codec.getIdName(), codec.getIdType(), idAccessor, codec.isZeroIdUnset()),
+				versionAccessor, objectMapper.readerFor(codec.getResourceClass()), relationships);
+	}
+
+	/**
+	 * @return accessor of the JsonVersion field or <code>null</code> in case
+	 *         class has none
+	 */
+	private static FieldAccessor createVersionAccessor(Class<?> clazz) {
+		List<Field> versionFields = ReflectionUtils.getAnnotatedFields(clazz, JsonVersion.class);
+		return versionFields.isEmpty() ? null : FieldAccessor.create(versionFields.get(0));
+	}
+
+	/**
+	 * Loads generated codecs of provided classes, registered as services by
+	 * the processor, see {@link ResourceCodec}. Codecs are looked up once per
+	 * class loader of the classes.
+	 *
+	 * @param classes
+	 *            resource classes
+	 * @return codecs by resource class, classes without codec are missing
+	 * @throws IllegalArgumentException
+	 *             in case a registered codec cannot be instantiated
+	 */
+	static Map<Class<?>, ResourceCodec<?>> loadCodecs(Class<?>... classes) {
+		Set<Class<?>> resourceClasses = new HashSet<>(Arrays.asList(classes));
+		Set<ClassLoader> loaders = new LinkedHashSet<>();
+		Map<Class<?>, ResourceCodec<?>> codecs = new HashMap<>();
+
+		for (Class<?> clazz : classes) {
+			loaders.add(clazz.getClassLoader() != null ? clazz.getClassLoader() : ClassLoader.getSystemClassLoader());
+		}
+
+		try {
+			for (ClassLoader loader : loaders) {
+				for (ResourceCodec<?> codec : ServiceLoader.load(ResourceCodec.class, loader)) {
+					if (resourceClasses.contains(codec.getResourceClass())) {
+						codecs.putIfAbsent(codec.getResourceClass(), codec);
+					}
+				}
+			}
+		} catch (ServiceConfigurationError e) {
+			throw new IllegalArgumentException("Resource codec cannot be loaded!", e);
+		}
+
+		return codecs;
+	}
+
+	public Class<?> getResourceClass() {
+		return resourceClass;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * @return type name encoded once for generators
+	 */
+	public SerializedString getEncodedType() {
+		return encodedType;
+	}
+
+	/**
+	 * Creates new instance of the resource class.
+	 *
+	 * @return resource
+	 * @throws IllegalAccessException
+	 * @throws InstantiationException
+	 */
+	public Object newInstance() throws IllegalAccessException, InstantiationException {
+		return factory != null ? factory.get() : ReflectionUtils.newInstance(resourceClass);
+	}
+
+	public FieldAccessor getIdAccessor() {
+		return idAccessor;
+	}
+
+	/**
+	 * Returns codec converting id field to and from the 'id' member, chosen by
+	 * the type of the field.
+	 *
+	 * @return id codec
+	 */
+	public IdCodec getIdCodec() {
+		return idCodec;
+	}
+
+	/**
+	 * @return accessor of the JsonVersion field or <code>null</code> in case
+	 *         written resources of this class are not cached
+	 */
+	public FieldAccessor getVersionAccessor() {
+		return versionAccessor;
+	}
+
+	/**
+	 * Returns reader binding 'attributes' object to the resource class. Reader
+	 * is created once, so deserializer lookup is not repeated per resource.
+	 *
+	 * @return attributes reader
+	 */
+	public ObjectReader getAttributesReader() {
+		return attributesReader;
+	}
+
+	public List<Relationship> getRelationships() {
+		return relationships;
+	}
+
+	/**
+	 * Returns relationship registered under provided JSON API name.
+	 *
+	 * @param name
+	 *            relationship name
+	 * @return relationship or <code>null</code> in case it is not defined
+	 */
+	public Relationship getRelationship(String name) {
+		return relationshipMap.get(name);
+	}
+
+	/**
+	 * JsonRelation field of a resource class.
+	 */
+	static final class Relationship {
+
+		private final String name;
+		private final SerializedString encodedName;
+		private final boolean included;
+		private final boolean lazy;
+		private final FieldAccessor accessor;
+		private final Class<?> targetType;
+
+		private Relationship(Field field) {
+			JsonRelation jsonRelation = field.getAnnotation(JsonRelation.class);
+
+			this.name = jsonRelation.value();
+			this.encodedName = new SerializedString(name);
+			this.included = jsonRelation.included();
+			this.lazy = jsonRelation.lazy();
+
+			ensureLazyList(field.getName(), field.getType());
+
+			this.accessor = FieldAccessor.create(field);
+			this.targetType = ReflectionUtils.getFieldType(field);
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> Relationship(RelationshipCodec<T> codec) {
+			this.name = codec.getName();
+			this.encodedName = new SerializedString(name);
+			this.included = codec.isIncluded();
+			this.lazy = codec.isLazy();
+
+			ensureLazyList(codec.getFieldName(), codec.getFieldType());
+
+			this.accessor = FieldAccessor.of(codec.getFieldName(), target -> codec.getGetter().apply((T) target),
+					(target, value) -> codec.getSetter().accept((T) target, value));
+			this.targetType = codec.getTargetType();
+		}
+
+		private void ensureLazyList(String fieldName, Class<?> fieldType) {
+			if (lazy && !fieldType.isAssignableFrom(LazyRelationshipList.class)) {
+				throw new IllegalArgumentException("Lazy relationship " + fieldName + " must be a List!");
+			}
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return relationship name encoded once for generators
+		 */
+		public SerializedString getEncodedName() {
+			return encodedName;
+		}
+
+		public boolean isIncluded() {
+			return included;
+		}
+
+		public boolean isLazy() {
+			return lazy;
+		}
+
+		public FieldAccessor getAccessor() {
+			return accessor;
+		}
+
+		public Class<?> getTargetType() {
+			return targetType;
+		}
+	}
+}
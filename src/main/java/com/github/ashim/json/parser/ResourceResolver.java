@@ -1,23 +1,58 @@
 package com.github.ashim.json.parser;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.github.ashim.json.annotations.JsonId;
-import com.github.ashim.json.annotations.JsonRelation;
-import com.github.ashim.json.annotations.JsonType;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.github.ashim.json.codec.ResourceCodec;
 import com.github.ashim.json.common.Constants;
+import com.github.ashim.json.error.ErrorUtils;
+import com.github.ashim.json.exception.ValidationException;
+import com.github.ashim.json.metrics.ResolverMetrics;
+import com.github.ashim.json.metrics.ResolverMetrics.Phase;
+import com.github.ashim.json.parser.ResourceMetadata.Relationship;
 
 /**
  * JSON API data converter. <br />
@@ -28,71 +63,42 @@ import com.github.ashim.json.common.Constants;
  * @author Ashim Jung Khadka
  */
 public class ResourceResolver {
-	private static final Map<String, Class<?>> TYPE_TO_CLASS_MAPPING = new HashMap<>();
-	private static final Map<Class<?>, JsonType> TYPE_ANNOTATIONS = new HashMap<>();
-	private static final Map<Class<?>, Field> ID_MAP = new HashMap<>();
-	private static final Map<Class<?>, List<Field>> RELATIONSHIPS_MAP = new HashMap<>();
-	private static final Map<Class<?>, Map<String, Class<?>>> RELATIONSHIP_TYPE_MAP = new HashMap<>();
-	private static final Map<Class<?>, Map<String, Field>> RELATIONSHIP_FIELD_MAP = new HashMap<>();
+	private static final int CHUNK_SIZE = 512;
+	private static final int MAX_PROJECTIONS = 64;
+	private static final byte[] DATA_START = "{\"data\":[".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] INCLUDED_START = ",\"included\":".getBytes(StandardCharsets.UTF_8);
+	private static final SerializedString ELEMENT_SEPARATOR = new SerializedString(",");
+
+	private final Map<Class<?>, ResourceMetadata> metadata;
+	private final Map<String, ResourceMetadata> typeMetadata;
+
+	private final Map<FieldSet, Projection> projections = new ConcurrentHashMap<>();
 
 	private ObjectMapper objectMapper;
+	private ObjectReader errorsReader;
+	private Projection projection;
+	private ResolverMetrics metrics;
+	private ValidationPolicy validationPolicy = ValidationPolicy.NONE;
+	private FragmentCache fragmentCache;
 
 	public ResourceResolver(Class<?>... classes) {
 		this(null, classes);
 	}
 
+	/**
+	 * Creates resolver of provided resource classes. Documents are read and
+	 * written in the format of provided mapper, e.g. one created by
+	 * {@link DataFormat#createMapper()}.
+	 *
+	 * @param mapper
+	 *            custom mapper or <code>null</code>
+	 * @param classes
+	 *            resource classes
+	 * @throws IllegalArgumentException
+	 *             in case a class is not a valid resource class
+	 */
 	public ResourceResolver(ObjectMapper mapper, Class<?>... classes) {
 
-		for (Class<?> clazz : classes) {
-
-			if (clazz.isAnnotationPresent(JsonType.class)) {
-				JsonType annotation = clazz.getAnnotation(JsonType.class);
-				TYPE_TO_CLASS_MAPPING.put(annotation.value(), clazz);
-				TYPE_ANNOTATIONS.put(clazz, annotation);
-				RELATIONSHIP_TYPE_MAP.put(clazz,
-						new HashMap<String, Class<?>>());
-				RELATIONSHIP_FIELD_MAP.put(clazz, new HashMap<String, Field>());
-
-				// collecting JsonRelation fields
-				List<Field> relationshipFields = ReflectionUtils
-						.getAnnotatedFields(clazz, JsonRelation.class);
-
-				for (Field relationshipField : relationshipFields) {
-					relationshipField.setAccessible(true);
-
-					JsonRelation jsonRelation = relationshipField
-							.getAnnotation(JsonRelation.class);
-					Class<?> targetType = ReflectionUtils
-							.getFieldType(relationshipField);
-					RELATIONSHIP_TYPE_MAP.get(clazz).put(jsonRelation.value(),
-							targetType);
-					RELATIONSHIP_FIELD_MAP.get(clazz).put(jsonRelation.value(),
-							relationshipField);
-
-				}
-
-				RELATIONSHIPS_MAP.put(clazz, relationshipFields);
-
-				// collecting Id fields
-				List<Field> idAnnotatedFields = ReflectionUtils
-						.getAnnotatedFields(clazz, JsonId.class);
-
-				if (!idAnnotatedFields.isEmpty()) {
-					Field idField = idAnnotatedFields.get(0);
-					idField.setAccessible(true);
-					ID_MAP.put(clazz, idField);
-				} else {
-					throw new IllegalArgumentException(
-							"All resource classes must have a field annotated with the "
-									+ "@JsonId annotation");
-				}
-
-			} else {
-				throw new IllegalArgumentException(
-						"All resource classes must be annotated with JsonType annotation!");
-			}
-		}
-
 		// Set custom mapper if provided
 		if (mapper != null) {
 			objectMapper = mapper;
@@ -101,6 +107,69 @@ public class ResourceResolver {
 		}
 
 		objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+
+		Map<Class<?>, ResourceMetadata> metadata = new HashMap<>();
+		Map<String, ResourceMetadata> typeMetadata = new HashMap<>();
+		Map<Class<?>, ResourceCodec<?>> codecs = ResourceMetadata.loadCodecs(classes);
+
+		for (Class<?> clazz : classes) {
+			ResourceMetadata resourceMetadata = ResourceMetadata.create(clazz, objectMapper, codecs.get(clazz));
+			metadata.put(clazz, resourceMetadata);
+			typeMetadata.put(resourceMetadata.getType(), resourceMetadata);
+		}
+
+		this.metadata = Collections.unmodifiableMap(metadata);
+		this.typeMetadata = Collections.unmodifiableMap(typeMetadata);
+
+		projection = Projection.create(objectMapper, this.metadata, FieldSet.ALL);
+		errorsReader = ErrorUtils.createErrorsReader(objectMapper);
+	}
+
+	/**
+	 * Creates resolver of all resource classes indexed at build time by
+	 * <code>json-org-converter-processor</code>, see
+	 * {@link ResourceCodec#INDEX}.
+	 *
+	 * @return resolver
+	 * @throws RuntimeException
+	 *             in case there is no index or it cannot be read
+	 */
+	public static ResourceResolver fromIndex() {
+		return fromIndex(null);
+	}
+
+	/**
+	 * Creates resolver of all indexed resource classes using provided mapper.
+	 *
+	 * @param mapper
+	 *            custom mapper or <code>null</code>
+	 * @return resolver
+	 * @throws RuntimeException
+	 *             in case there is no index or it cannot be read
+	 */
+	public static ResourceResolver fromIndex(ObjectMapper mapper) {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		return fromIndex(mapper, loader != null ? loader : ResourceResolver.class.getClassLoader());
+	}
+
+	/**
+	 * Creates resolver of all resource classes indexed on the classpath of
+	 * provided class loader.
+	 *
+	 * @param mapper
+	 *            custom mapper or <code>null</code>
+	 * @param loader
+	 *            class loader of the index and resource classes
+	 * @return resolver
+	 * @throws RuntimeException
+	 *             in case there is no index or it cannot be read
+	 */
+	public static ResourceResolver fromIndex(ObjectMapper mapper, ClassLoader loader) {
+		try {
+			return new ResourceResolver(mapper, ResourceIndex.load(loader));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
 	}
 
 	/**
@@ -116,19 +185,131 @@ public class ResourceResolver {
 	 *             in case conversion fails
 	 */
 	public <T> T readJson(byte[] data, Class<T> clazz) {
+		return readJson(data, clazz, FieldSet.ALL);
+	}
+
+	/**
+	 * Converts raw data input into requested target type, binding only
+	 * attributes and relationships requested by provided fieldset.
+	 *
+	 * @param data
+	 *            data
+	 * @param clazz
+	 *            target object
+	 * @param fieldSet
+	 *            requested fields
+	 * @param <T>
+	 * @return converted object
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> T readJson(byte[] data, Class<T> clazz, FieldSet fieldSet) {
+		try {
+			return readJson(createParser(data), clazz, getProjection(fieldSet));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts input stream into requested target type. The stream is read
+	 * through the parser's own buffer and closed once the document is read.
+	 *
+	 * @param data
+	 *            data stream
+	 * @param clazz
+	 *            target object
+	 * @param <T>
+	 * @return converted object
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> T readJson(InputStream data, Class<T> clazz) {
+		try {
+			return readJson(createParser(data), clazz, projection);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts remaining bytes of provided heap or direct buffer into requested
+	 * target type. Buffer contents are parsed in place, its position is left
+	 * unchanged.
+	 *
+	 * @param data
+	 *            data buffer
+	 * @param clazz
+	 *            target object
+	 * @param <T>
+	 * @return converted object
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> T readJson(ByteBuffer data, Class<T> clazz) {
 		try {
-			JsonNode rootNode = objectMapper.readTree(data);
+			return readJson(createParser(data), clazz, projection);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
 
-			// Validate
-			ValidationUtils.ensureNotError(rootNode);
-			ValidationUtils.ensureObject(rootNode);
+	/**
+	 * Converts file contents into requested target type. The file is memory
+	 * mapped and parsed without being copied into the heap.
+	 *
+	 * @param data
+	 *            file path
+	 * @param clazz
+	 *            target object
+	 * @param <T>
+	 * @return converted object
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> T readJson(Path data, Class<T> clazz) {
+		try {
+			return readJson(createParser(data), clazz, projection);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
 
-			Map<String, Object> included = parseIncluded(rootNode);
+	/**
+	 * Converts raw data input into provided instance, updating it in place.
+	 * Attributes and relationships missing from the document are left
+	 * unchanged, the instance adopts the id of the document's resource.
+	 *
+	 * @param data
+	 *            data
+	 * @param target
+	 *            instance of a registered type
+	 * @param <T>
+	 * @return target object
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T readJsonInto(byte[] data, T target) {
+		Class<T> clazz = (Class<T>) target.getClass();
 
-			JsonNode dataNode = rootNode.get(Constants.DATA);
+		try (ResourceIterator<T> iterator = new ResourceIterator<>(this, objectMapper, projection,
+				createParser(data), clazz, false, true, false, null, target)) {
+			return iterator.next();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
 
-			T result = readJson(dataNode, clazz, included);
+	private <T> T readJson(JsonParser parser, Class<T> clazz, Projection projection) {
+		long start = startPhase();
 
+		try (ResourceIterator<T> iterator = new ResourceIterator<>(this, objectMapper, projection, parser, clazz,
+				false, true, false)) {
+			T result = iterator.next();
+			endPhase(Phase.READ, start);
 			return result;
 		} catch (RuntimeException e) {
 			throw e;
@@ -149,538 +330,1593 @@ public class ResourceResolver {
 	 * @throws RuntimeException
 	 *             in case conversion fails
 	 */
-	public <T> List<T> readJsonCollection(byte[] data, Class<T> clazz) {
-
+	public <T> List<T> readJsonCollection(byte[] data, Class<T> clazz) {
+		return readJsonCollection(data, clazz, FieldSet.ALL);
+	}
+
+	/**
+	 * Converts raw-data input into a collection of requested output objects,
+	 * binding only attributes and relationships requested by provided
+	 * fieldset.
+	 *
+	 * @param data
+	 *            data
+	 * @param clazz
+	 *            target type
+	 * @param fieldSet
+	 *            requested fields
+	 * @param <T>
+	 * @return collection of converted elements
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> List<T> readJsonCollection(byte[] data, Class<T> clazz, FieldSet fieldSet) {
+		try {
+			return readJsonCollection(createParser(data), clazz, getProjection(fieldSet));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts input stream into a collection of requested output objects. The
+	 * stream is read through the parser's own buffer and closed once the
+	 * document is read.
+	 *
+	 * @param data
+	 *            data stream
+	 * @param clazz
+	 *            target type
+	 * @param <T>
+	 * @return collection of converted elements
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> List<T> readJsonCollection(InputStream data, Class<T> clazz) {
+		try {
+			return readJsonCollection(createParser(data), clazz, projection);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts remaining bytes of provided heap or direct buffer into a
+	 * collection of requested output objects. Buffer contents are parsed in
+	 * place, its position is left unchanged.
+	 *
+	 * @param data
+	 *            data buffer
+	 * @param clazz
+	 *            target type
+	 * @param <T>
+	 * @return collection of converted elements
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> List<T> readJsonCollection(ByteBuffer data, Class<T> clazz) {
+		try {
+			return readJsonCollection(createParser(data), clazz, projection);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts file contents into a collection of requested output objects.
+	 * The file is memory mapped and parsed without being copied into the heap.
+	 *
+	 * @param data
+	 *            file path
+	 * @param clazz
+	 *            target type
+	 * @param <T>
+	 * @return collection of converted elements
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> List<T> readJsonCollection(Path data, Class<T> clazz) {
+		try {
+			return readJsonCollection(createParser(data), clazz, projection);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts raw-data input into a collection of requested output objects,
+	 * reusing instances of provided identity map. <br />
+	 *
+	 * Primary and included resources are matched by type and id and updated
+	 * in place, resources seen for the first time are created and added to
+	 * the identity map. Attributes and relationships missing from the document
+	 * are left unchanged.
+	 *
+	 * @param data
+	 *            data
+	 * @param clazz
+	 *            target type
+	 * @param identities
+	 *            instances of previous reads
+	 * @param <T>
+	 * @return collection of converted elements
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> List<T> readJsonCollectionInto(byte[] data, Class<T> clazz, IdentityMap identities) {
+		try (ResourceIterator<T> iterator = new ResourceIterator<>(this, objectMapper, projection,
+				createParser(data), clazz, true, true, false, identities, null)) {
+			List<T> result = new ArrayList<>();
+
+			while (iterator.hasNext()) {
+				result.add(iterator.next());
+			}
+
+			return result;
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private <T> List<T> readJsonCollection(JsonParser parser, Class<T> clazz, Projection projection) {
+		long start = startPhase();
+
+		try (ResourceIterator<T> iterator = new ResourceIterator<>(this, objectMapper, projection, parser, clazz,
+				true, true, false)) {
+			List<T> result = new ArrayList<>();
+
+			while (iterator.hasNext()) {
+				result.add(iterator.next());
+			}
+
+			endPhase(Phase.READ, start);
+			return result;
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts raw-data input into a collection of requested output objects,
+	 * materializing 'data' elements on provided executor. <br />
+	 *
+	 * Included resources are converted first. Their index is then frozen and
+	 * 'data' elements are handed out to the executor in chunks of
+	 * {@value #CHUNK_SIZE}, keeping their original order. Chunks only read the
+	 * frozen index, linkage objects of resources it does not hold are shared
+	 * within a chunk. Unlike
+	 * {@link #readJsonCollection(byte[], Class)}, relationships between
+	 * elements of 'data' resolve to linkage objects rather than to the
+	 * elements themselves, since elements are converted independently.
+	 *
+	 * @param data
+	 *            data
+	 * @param clazz
+	 *            target type
+	 * @param executor
+	 *            executor converting chunks, e.g.
+	 *            {@link java.util.concurrent.ForkJoinPool#commonPool()}
+	 * @param <T>
+	 * @return collection of converted elements
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> List<T> readJsonCollection(byte[] data, Class<T> clazz, Executor executor) {
+		List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+		long start = startPhase();
+
+		try {
+			JsonParser parser = createParser(data);
+
+			try (ResourceIterator<T> iterator = new ResourceIterator<>(this, objectMapper, projection, parser, clazz,
+					true, false, false)) {
+				Map<String, Object> included = Collections.unmodifiableMap(iterator.getIncluded());
+				TokenBuffer chunk;
+
+				while ((chunk = iterator.nextChunk(CHUNK_SIZE)) != null) {
+					JsonParser chunkParser = chunk.asParser(parser);
+					chunks.add(CompletableFuture.supplyAsync(() -> readChunk(chunkParser, clazz, included), executor));
+				}
+			}
+
+			List<T> result = new ArrayList<>();
+
+			for (CompletableFuture<List<T>> chunk : chunks) {
+				result.addAll(chunk.join());
+			}
+
+			endPhase(Phase.READ, start);
+			return result;
+		} catch (CompletionException e) {
+			chunks.forEach(future -> future.cancel(false));
+
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+
+			throw new RuntimeException(e.getCause());
+		} catch (RuntimeException e) {
+			chunks.forEach(future -> future.cancel(false));
+			throw e;
+		} catch (Exception e) {
+			chunks.forEach(future -> future.cancel(false));
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts buffered 'data' elements.
+	 *
+	 * @param parser
+	 *            parser over buffered elements
+	 * @param clazz
+	 *            target type
+	 * @param included
+	 *            frozen included index
+	 * @return converted elements
+	 */
+	private <T> List<T> readChunk(JsonParser parser, Class<T> clazz, Map<String, Object> included) {
+		List<T> result = new ArrayList<>();
+		Map<String, Object> linkages = new HashMap<>();
+
+		try {
+			while (parser.nextToken() == JsonToken.START_OBJECT) {
+				result.add(readElement(parser, clazz, included, linkages, false, projection, null, null));
+			}
+		} catch (IOException | IllegalAccessException | InstantiationException e) {
+			throw new CompletionException(e);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Creates parser of provided input enforcing the validation policy. Size of
+	 * arrays, buffers and files is checked upfront, streams fail once too many
+	 * bytes are read.
+	 */
+	private JsonParser createParser(byte[] data) throws IOException {
+		ValidatingParser.ensureSize(data.length, validationPolicy);
+		return ValidatingParser.wrap(objectMapper.getFactory().createParser(data), validationPolicy);
+	}
+
+	private JsonParser createParser(InputStream data) throws IOException {
+		return ValidatingParser.wrap(
+				objectMapper.getFactory().createParser(ValidatingParser.limit(data, validationPolicy,
+						JsonFactory.FORMAT_NAME_JSON.equals(objectMapper.getFactory().getFormatName()))),
+				validationPolicy);
+	}
+
+	/**
+	 * Creates parser over remaining bytes of provided buffer. Heap buffers are
+	 * parsed straight from their backing array.
+	 */
+	private JsonParser createParser(ByteBuffer data) throws IOException {
+		ValidatingParser.ensureSize(data.remaining(), validationPolicy);
+
+		if (data.hasArray()) {
+			return ValidatingParser.wrap(objectMapper.getFactory().createParser(data.array(),
+					data.arrayOffset() + data.position(), data.remaining()), validationPolicy);
+		}
+
+		return ValidatingParser.wrap(
+				objectMapper.getFactory().createParser(new ByteBufferBackedInputStream(data.duplicate())),
+				validationPolicy);
+	}
+
+	private JsonParser createParser(Path data) throws IOException {
+		ValidatingParser.ensureSize(Files.size(data), validationPolicy);
+		return ValidatingParser.wrap(objectMapper.getFactory().createParser(MappedFileInputStream.open(data)),
+				validationPolicy);
+	}
+
+	/**
+	 * Reads a single resource document from a parser owned by the caller. The
+	 * parser is expected at the document's START_OBJECT token and is left at
+	 * its END_OBJECT token.
+	 *
+	 * @param parser
+	 *            document parser
+	 * @param clazz
+	 *            target type
+	 * @param <T>
+	 * @return converted object
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 * @throws InstantiationException
+	 */
+	<T> T readDocument(JsonParser parser, Class<T> clazz)
+			throws IOException, IllegalAccessException, InstantiationException {
+		try (ResourceIterator<T> iterator = new ResourceIterator<>(this, objectMapper, projection, parser, clazz,
+				false, true, true)) {
+			T result = iterator.next();
+
+			// Consume remaining members of the document
+			iterator.hasNext();
+
+			return result;
+		}
+	}
+
+	/**
+	 * Reads a collection document from a parser owned by the caller into
+	 * provided collection. The parser is expected at the document's
+	 * START_OBJECT token and is left at its END_OBJECT token.
+	 *
+	 * @param parser
+	 *            document parser
+	 * @param clazz
+	 *            target type
+	 * @param result
+	 *            collection receiving converted elements
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 * @throws InstantiationException
+	 */
+	<T> void readDocumentCollection(JsonParser parser, Class<T> clazz, Collection<? super T> result)
+			throws IOException, IllegalAccessException, InstantiationException {
+		try (ResourceIterator<T> iterator = new ResourceIterator<>(this, objectMapper, projection, parser, clazz,
+				true, true, true)) {
+			while (iterator.hasNext()) {
+				result.add(iterator.next());
+			}
+		}
+	}
+
+	/**
+	 * Converts raw-data input into a lazily populated stream of requested
+	 * output objects. <br />
+	 *
+	 * Elements of the 'data' array are read and resolved one at a time. Keeping
+	 * memory bounded by a single element plus the included index requires the
+	 * 'included' member to precede 'data', otherwise 'data' is buffered until
+	 * the rest of the document is scanned. Elements are not cached, so
+	 * relationships are resolved against included resources only. The index
+	 * is never modified while streaming, references to resources it does not
+	 * hold get a linkage object of their own. <br />
+	 *
+	 * The returned stream holds the input open and should be closed once
+	 * consumed.
+	 *
+	 * @param data
+	 *            data stream
+	 * @param clazz
+	 *            target type
+	 * @param <T>
+	 * @return stream of converted elements
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> Stream<T> streamJsonCollection(InputStream data, Class<T> clazz) {
+
+		try {
+			JsonParser parser = createParser(data);
+			ResourceIterator<T> iterator = new ResourceIterator<>(this, objectMapper, projection, parser, clazz,
+					true, false, false);
+
+			return StreamSupport
+					.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+							false)
+					.onClose(iterator::close);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	<T> T readElement(JsonParser parser, Class<T> clazz, Map<String, Object> included, boolean cache)
+			throws IOException, IllegalAccessException, InstantiationException {
+		return readElement(parser, clazz, included, cache, projection);
+	}
+
+	/**
+	 * Creates push-style reader of a collection document, handing converted
+	 * elements to provided consumer as input bytes arrive.
+	 *
+	 * @param clazz
+	 *            target type
+	 * @param consumer
+	 *            consumer of converted elements, called on the feeding thread
+	 * @param <T>
+	 * @return document feeder
+	 * @throws RuntimeException
+	 *             in case parser cannot be created
+	 */
+	public <T> JsonApiFeeder<T> createFeeder(Class<T> clazz, Consumer<? super T> consumer) {
+		try {
+			return new JsonApiFeeder<>(this, objectMapper, projection, clazz, consumer);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts a single 'data' element read from provided parser and resolves
+	 * its relationships against provided included resources.
+	 *
+	 * @param parser
+	 *            parser positioned at the element's START_OBJECT token
+	 * @param clazz
+	 *            target type
+	 * @param included
+	 *            included resources
+	 * @param cache
+	 *            whether converted element should be added to included
+	 *            resources
+	 * @param projection
+	 *            readers of requested fields
+	 * @param <T>
+	 * @return converted target object
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 * @throws InstantiationException
+	 */
+	<T> T readElement(JsonParser parser, Class<T> clazz, Map<String, Object> included, boolean cache,
+			Projection projection) throws IOException, IllegalAccessException, InstantiationException {
+		return readElement(parser, clazz, included, cache, projection, null, null);
+	}
+
+	/**
+	 * Converts a single 'data' element into an existing instance, see
+	 * {@link #readElement(JsonParser, Class, Map, boolean, Projection)}.
+	 *
+	 * @param identities
+	 *            instances to update, matched by type and id, or
+	 *            <code>null</code>
+	 * @param target
+	 *            instance to update regardless of its id or <code>null</code>
+	 */
+	<T> T readElement(JsonParser parser, Class<T> clazz, Map<String, Object> included, boolean cache,
+			Projection projection, IdentityMap identities, T target)
+			throws IOException, IllegalAccessException, InstantiationException {
+		// Only reads caching their elements own the included index
+		return readElement(parser, clazz, included, cache ? included : null, cache, projection, identities, target);
+	}
+
+	/**
+	 * Converts a single 'data' element, see
+	 * {@link #readElement(JsonParser, Class, Map, boolean, Projection)}.
+	 *
+	 * @param linkages
+	 *            linkage objects of resources missing from included
+	 *            resources, memoized by identifier, or <code>null</code> to
+	 *            create them per reference
+	 */
+	private <T> T readElement(JsonParser parser, Class<T> clazz, Map<String, Object> included,
+			Map<String, Object> linkages, boolean cache, Projection projection, IdentityMap identities, T target)
+			throws IOException, IllegalAccessException, InstantiationException {
+		Resource resource = readResource(parser, getMetadata(clazz), projection, identities, target);
+
+		// Handle relationships
+		handleRelationships(resource.getRelationships(), resource.getObject(), included, linkages);
+
+		if (metrics != null) {
+			metrics.resource();
+		}
+
+		if (cache) {
+			// Add parsed object to cache
+			included.put(resource.getIdentifier(), resource.getObject());
+		}
+
+		return clazz.cast(resource.getObject());
+	}
+
+	/**
+	 * Reads a resource object without resolving its relationships. <br />
+	 *
+	 * Attributes are bound straight from the token stream using the cached
+	 * reader of the resource class. They are only buffered in case the type of
+	 * the resource is not known yet when 'attributes' is reached.
+	 * Relationships left out by the projection's fieldset are dropped.
+	 *
+	 * @param parser
+	 *            parser positioned at the resource's START_OBJECT token
+	 * @param expected
+	 *            expected resource type or <code>null</code> to resolve it
+	 *            from 'type' member
+	 * @param projection
+	 *            readers of requested fields
+	 * @param identities
+	 *            instances to update, matched by type and id, or
+	 *            <code>null</code> to create new instances
+	 * @param target
+	 *            instance to update regardless of its id or <code>null</code>
+	 * @return parsed resource or <code>null</code> in case its type is not
+	 *         registered
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 * @throws InstantiationException
+	 */
+	private Resource readResource(JsonParser parser, ResourceMetadata expected, Projection projection,
+			IdentityMap identities, Object target) throws IOException, IllegalAccessException, InstantiationException {
+		ResourceMetadata resourceMetadata = expected;
+		String type = null;
+		String id = null;
+		long numericId = IdCodec.NOT_NUMERIC;
+		Object object = null;
+		TokenBuffer attributes = null;
+		JsonNode relationships = null;
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+
+			if (Constants.TYPE.equals(field)) {
+				type = parser.getValueAsString();
+
+				if (resourceMetadata == null) {
+					resourceMetadata = typeMetadata.get(type);
+				}
+			} else if (Constants.ID.equals(field)) {
+				// Numeric ids of known types are read without intermediate String
+				numericId = resourceMetadata != null ? resourceMetadata.getIdCodec().readNumber(parser)
+						: IdCodec.NOT_NUMERIC;
+				id = numericId == IdCodec.NOT_NUMERIC ? parser.getValueAsString() : null;
+			} else if (Constants.ATTRIBUTES.equals(field) && token == JsonToken.START_OBJECT) {
+				// Instance to update is only known once type and id are read
+				if (resourceMetadata != null && (identities == null || target != null || id != null
+						|| numericId != IdCodec.NOT_NUMERIC)) {
+					long start = startPhase();
+					object = getReader(resourceMetadata, projection,
+							findExisting(resourceMetadata, type, id, numericId, identities, target)).readValue(parser);
+					endPhase(Phase.ATTRIBUTES, start);
+				} else {
+					attributes = new TokenBuffer(parser);
+					attributes.copyCurrentStructure(parser);
+				}
+			} else if (Constants.RELATIONSHIPS.equals(field)) {
+				long start = startPhase();
+				relationships = objectMapper.readTree(ValidatingParser.limitFanOut(parser, validationPolicy));
+				endPhase(Phase.RELATIONSHIPS_TREE, start);
+			} else {
+				parser.skipChildren();
+			}
+		}
+
+		if (resourceMetadata == null) {
+			return null;
+		}
+
+		if (object == null) {
+			Object existing = findExisting(resourceMetadata, type, id, numericId, identities, target);
+
+			if (attributes != null) {
+				long start = startPhase();
+				object = getReader(resourceMetadata, projection, existing).readValue(attributes.asParser(parser));
+				endPhase(Phase.ATTRIBUTES, start);
+			} else if (existing != null) {
+				object = existing;
+			} else {
+				object = resourceMetadata.newInstance();
+			}
+		}
+
+		// Set object id
+		if (numericId != IdCodec.NOT_NUMERIC) {
+			resourceMetadata.getIdCodec().set(object, numericId);
+		} else {
+			setIdValue(object, id);
+		}
+
+		String identifier = createIdentifier(type != null ? type : resourceMetadata.getType(), id, numericId);
+
+		if (identities != null) {
+			identities.put(identifier, object);
+		}
+
+		Set<String> fields = projection.getFieldSet().getFields(resourceMetadata.getType());
+		if (fields != null && relationships instanceof ObjectNode) {
+			((ObjectNode) relationships).retain(fields);
+		}
+
+		return new Resource(identifier, object, relationships);
+	}
+
+	/**
+	 * Returns instance a resource is read into.
+	 *
+	 * @return target, instance of the identity map or <code>null</code> in
+	 *         case a new instance has to be created
+	 */
+	private Object findExisting(ResourceMetadata resourceMetadata, String type, String id, long numericId,
+			IdentityMap identities, Object target) {
+		if (target != null) {
+			return target;
+		}
+
+		if (identities == null || (id == null && numericId == IdCodec.NOT_NUMERIC)) {
+			return null;
+		}
+
+		Object existing = identities
+				.get(createIdentifier(type != null ? type : resourceMetadata.getType(), id, numericId));
+		return resourceMetadata.getResourceClass().isInstance(existing) ? existing : null;
+	}
+
+	private ObjectReader getReader(ResourceMetadata resourceMetadata, Projection projection, Object existing) {
+		ObjectReader reader = projection.getReader(resourceMetadata);
+		return existing != null ? reader.withValueToUpdate(existing) : reader;
+	}
+
+	/**
+	 * Converts included data and returns it as pairs of its unique identifiers
+	 * and converted types.
+	 *
+	 * @param parser
+	 *            parser positioned at the START_ARRAY token of 'included'
+	 * @param projection
+	 *            readers of requested fields
+	 * @return identifier/object pairs
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 * @throws InstantiationException
+	 */
+	Map<String, Object> parseIncluded(JsonParser parser, Projection projection)
+			throws IOException, IllegalAccessException, InstantiationException {
+		return parseIncluded(parser, projection, null);
+	}
+
+	/**
+	 * Converts included data into instances of provided identity map, see
+	 * {@link #parseIncluded(JsonParser, Projection)}.
+	 *
+	 * @param identities
+	 *            instances to update or <code>null</code>
+	 */
+	Map<String, Object> parseIncluded(JsonParser parser, Projection projection, IdentityMap identities)
+			throws IOException, IllegalAccessException, InstantiationException {
+		long start = startPhase();
+		Map<String, Object> result = new HashMap<>();
+		List<Resource> includedResources = new ArrayList<>();
+
+		JsonToken token;
+		int count = 0;
+		while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+			if (token != JsonToken.START_OBJECT) {
+				parser.skipChildren();
+				continue;
+			}
+
+			if (++count > validationPolicy.getMaxIncluded()) {
+				throw new ValidationException(
+						"'included' exceeds maximum of " + validationPolicy.getMaxIncluded() + " resources!",
+						parser.getTokenLocation().getByteOffset());
+			}
+
+			Resource resource = readResource(parser, null, projection, identities, null);
+
+			if (resource != null) {
+				result.put(resource.getIdentifier(), resource.getObject());
+				includedResources.add(resource);
+			}
+		}
+
+		// Handle relationships once every included resource is known
+		for (Resource resource : includedResources) {
+			handleRelationships(resource.getRelationships(), resource.getObject(), result, result);
+		}
+
+		if (metrics != null) {
+			metrics.included(result.size());
+			endPhase(Phase.INCLUDED, start);
+		}
+
+		return result;
+	}
+
+	private void handleRelationships(JsonNode relationships, Object object,
+			Map<String, Object> includedData, Map<String, Object> linkages) throws IllegalAccessException,
+			IOException, InstantiationException {
+
+		if (relationships != null) {
+			long start = startPhase();
+			Iterator<String> fields = relationships.fieldNames();
+
+			while (fields.hasNext()) {
+				String field = fields.next();
+
+				JsonNode relationship = relationships.get(field);
+				Relationship relationshipMetadata = getMetadata(
+						object.getClass()).getRelationship(field);
+
+				if (relationshipMetadata != null) {
+					FieldAccessor relationshipField = relationshipMetadata.getAccessor();
+
+					// Get target type
+					Class<?> type = relationshipMetadata.getTargetType();
+
+					// In case type is not defined, relationship object cannot
+					// be processed
+					if (type == null) {
+						continue;
+					}
+
+					if (relationshipMetadata.isLazy() && isCollection(relationship)) {
+						relationshipField.set(object,
+								new LazyRelationshipList(this, relationship.get(Constants.DATA), type, includedData));
+					} else if (isCollection(relationship)) {
+
+						List<Object> elements = new ArrayList<>();
+
+						for (JsonNode element : relationship
+								.get(Constants.DATA)) {
+							Object relationshipObject = parseRelationship(
+									element, type, includedData, linkages);
+							if (relationshipObject != null) {
+								elements.add(relationshipObject);
+							}
+						}
+						relationshipField.set(object, elements);
+					} else {
+						Object relationshipObject = parseRelationship(
+								relationship.get(Constants.DATA), type,
+								includedData, linkages);
+						if (relationshipObject != null) {
+							relationshipField.set(object, relationshipObject);
+						}
+					}
+				}
+			}
+
+			endPhase(Phase.RELATIONSHIPS, start);
+		}
+	}
+
+	/**
+	 * Creates relationship object by consuming provided 'data' node.
+	 *
+	 * @param relationshipDataNode
+	 *            relationship data node
+	 * @param type
+	 *            object type
+	 * @param cache
+	 *            object cache, only read
+	 * @param linkages
+	 *            memoized linkage objects or <code>null</code> to create a
+	 *            new one
+	 * @return created object or <code>null</code> in case data node is not
+	 *         valid
+	 * @throws IllegalAccessException
+	 * @throws InstantiationException
+	 */
+	private Object parseRelationship(JsonNode relationshipDataNode,
+			Class<?> type, Map<String, Object> cache, Map<String, Object> linkages) throws
+			IllegalAccessException, InstantiationException {
+		if (ValidationUtils.isRelationshipParsable(relationshipDataNode)) {
+			String id = relationshipDataNode.get(Constants.ID).asText();
+			String identifier = createIdentifier(relationshipDataNode.get(Constants.TYPE).asText(), id);
+
+			Object result = cache.get(identifier);
+
+			if (metrics != null) {
+				metrics.relationshipLookup(result != null);
+			}
+
+			if (result == null && linkages != null) {
+				result = linkages.get(identifier);
+			}
+
+			if (result == null) {
+				result = createLinkage(type, id);
+
+				if (linkages != null) {
+					linkages.put(identifier, result);
+				}
+			}
+
+			return result;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Binds linkage objects of a lazy to-many relationship. Included index is
+	 * only read, linkage objects of resources it does not hold are created for
+	 * this relationship alone.
+	 *
+	 * @param data
+	 *            relationship 'data' array
+	 * @param type
+	 *            target type
+	 * @param included
+	 *            included index of the document
+	 * @return relationship objects
+	 * @throws RuntimeException
+	 *             in case target type cannot be instantiated
+	 */
+	List<Object> resolveLinkages(JsonNode data, Class<?> type, Map<String, Object> included) {
+		List<Object> result = new ArrayList<>(data.size());
+
+		try {
+			for (JsonNode element : data) {
+				if (ValidationUtils.isRelationshipParsable(element)) {
+					String id = element.get(Constants.ID).asText();
+					String identifier = createIdentifier(element.get(Constants.TYPE).asText(), id);
+					Object relationshipObject = included.get(identifier);
+
+					if (metrics != null) {
+						metrics.relationshipLookup(relationshipObject != null);
+					}
+
+					result.add(relationshipObject != null ? relationshipObject : createLinkage(type, id));
+				}
+			}
+		} catch (IllegalAccessException | InstantiationException e) {
+			throw new RuntimeException(e);
+		}
+
+		return result;
+	}
+
+	private Object createLinkage(Class<?> type, String id) throws IllegalAccessException, InstantiationException {
+		ResourceMetadata resourceMetadata = metadata.get(type);
+		Object result = resourceMetadata != null ? resourceMetadata.newInstance()
+				: ReflectionUtils.newInstance(type);
+		setIdValue(result, id);
+		return result;
+	}
+
+	/**
+	 * Generates unique resource identifier by combining resource type and
+	 * resource id fields. <br />
+	 * By specification id/type combination guarantees uniqueness.
+	 *
+	 * @param type
+	 *            resource type
+	 * @param id
+	 *            resource id, may be <code>null</code>
+	 * @return concatenated id and type values
+	 */
+	private String createIdentifier(String type, String id) {
+		return id != null ? type.concat(id) : type;
+	}
+
+	/**
+	 * Generates unique resource identifier of an id read either as String or
+	 * as number, see {@link IdCodec#readNumber(JsonParser)}.
+	 */
+	private String createIdentifier(String type, String id, long numericId) {
+		return numericId != IdCodec.NOT_NUMERIC ? type + numericId : createIdentifier(type, id);
+	}
+
+	/**
+	 * Sets an id attribute value to a target object.
+	 *
+	 * @param target
+	 *            target POJO
+	 * @param idValue
+	 *            id value
+	 * @throws IllegalArgumentException
+	 *             in case id value cannot be converted to the id field type
+	 */
+	private void setIdValue(Object target, String idValue) {
+		// By specification, id value is always a String type, the codec
+		// converts it to the type of the id field
+
+		if (idValue != null && !idValue.isEmpty()) {
+			getMetadata(target.getClass()).getIdCodec().set(target, idValue);
+		}
+	}
+
+	/**
+	 * Checks if <code>data</code> object is an array or just single object
+	 * holder.
+	 *
+	 * @param source
+	 *            data node
+	 * @return <code>true</code> if data node is an array else
+	 *         <code>false</code>
+	 */
+	private boolean isCollection(JsonNode source) {
+		JsonNode data = source.get(Constants.DATA);
+		return data != null && data.isArray();
+	}
+
+	/**
+	 * Converts input object to String.
+	 *
+	 * @param object
+	 *            input object
+	 * @return json in String
+	 */
+	public String writeJson(Object object) {
+		return writeJson(object, FieldSet.ALL);
+	}
+
+	/**
+	 * Converts input object to String, writing only attributes and
+	 * relationships requested by provided fieldset.
+	 *
+	 * @param object
+	 *            input object
+	 * @param fieldSet
+	 *            requested fields
+	 * @return json in String
+	 */
+	public String writeJson(Object object, FieldSet fieldSet) {
+		return writeJson(object, Include.DEFAULT, fieldSet);
+	}
+
+	/**
+	 * Converts input object to String, including relationships named by
+	 * provided include paths and writing only attributes and relationships
+	 * requested by provided fieldset.
+	 *
+	 * @param object
+	 *            input object
+	 * @param include
+	 *            include paths
+	 * @param fieldSet
+	 *            requested fields
+	 * @return json in String
+	 */
+	public String writeJson(Object object, Include include, FieldSet fieldSet) {
+		StringWriter writer = new StringWriter();
+
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+			writeJson(object, generator, include, fieldSet);
+		} catch (IOException ex) {
+			System.out.println("Error in writeObject");
+			return "";
+		}
+
+		return writer.toString();
+	}
+
+	/**
+	 * Converts input object to String.
+	 *
+	 * @param objects
+	 *            List of input objects
+	 * @return json in String
+	 */
+	public <T> String writeJsonCollection(Iterable<T> objects) {
+		return writeJsonCollection(objects, FieldSet.ALL);
+	}
+
+	/**
+	 * Converts input object to String, writing only attributes and
+	 * relationships requested by provided fieldset.
+	 *
+	 * @param objects
+	 *            List of input objects
+	 * @param fieldSet
+	 *            requested fields
+	 * @return json in String
+	 */
+	public <T> String writeJsonCollection(Iterable<T> objects, FieldSet fieldSet) {
+		return writeJsonCollection(objects, Include.DEFAULT, fieldSet);
+	}
+
+	/**
+	 * Converts input object to String, including relationships named by
+	 * provided include paths and writing only attributes and relationships
+	 * requested by provided fieldset.
+	 *
+	 * @param objects
+	 *            List of input objects
+	 * @param include
+	 *            include paths
+	 * @param fieldSet
+	 *            requested fields
+	 * @return json in String
+	 */
+	public <T> String writeJsonCollection(Iterable<T> objects, Include include, FieldSet fieldSet) {
+		StringWriter writer = new StringWriter();
+
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+			writeJsonCollection(objects, generator, include, fieldSet);
+		} catch (IOException ex) {
+			System.out.println("Error in writeObject");
+			return "";
+		}
+
+		return writer.toString();
+	}
+
+	/**
+	 * Writes input object as a JSON API document to provided output stream.
+	 * Tokens are written straight to the stream, no intermediate tree or String
+	 * is built. The stream is flushed but not closed.
+	 *
+	 * @param object
+	 *            input object
+	 * @param output
+	 *            target stream
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public void writeJson(Object object, OutputStream output) {
+		writeJson(object, output, FieldSet.ALL);
+	}
+
+	/**
+	 * Writes input object as a JSON API document to provided output stream,
+	 * writing only attributes and relationships requested by provided fieldset.
+	 * The stream is flushed but not closed.
+	 *
+	 * @param object
+	 *            input object
+	 * @param output
+	 *            target stream
+	 * @param fieldSet
+	 *            requested fields
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public void writeJson(Object object, OutputStream output, FieldSet fieldSet) {
+		writeJson(object, output, Include.DEFAULT, fieldSet);
+	}
+
+	/**
+	 * Writes input object as a JSON API document to provided output stream,
+	 * including relationships named by provided include paths and writing only
+	 * attributes and relationships requested by provided fieldset. The stream
+	 * is flushed but not closed.
+	 *
+	 * @param object
+	 *            input object
+	 * @param output
+	 *            target stream
+	 * @param include
+	 *            include paths
+	 * @param fieldSet
+	 *            requested fields
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public void writeJson(Object object, OutputStream output, Include include, FieldSet fieldSet) {
+		try (JsonGenerator generator = createGenerator(output)) {
+			writeJson(object, generator, include, fieldSet);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Writes input object as a JSON API document using provided generator.
+	 * Generator is neither flushed nor closed.
+	 *
+	 * @param object
+	 *            input object
+	 * @param generator
+	 *            target generator
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public void writeJson(Object object, JsonGenerator generator) {
+		writeJson(object, generator, FieldSet.ALL);
+	}
+
+	/**
+	 * Writes input object as a JSON API document using provided generator,
+	 * writing only attributes and relationships requested by provided fieldset.
+	 * Generator is neither flushed nor closed.
+	 *
+	 * @param object
+	 *            input object
+	 * @param generator
+	 *            target generator
+	 * @param fieldSet
+	 *            requested fields
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public void writeJson(Object object, JsonGenerator generator, FieldSet fieldSet) {
+		writeJson(object, generator, Include.DEFAULT, fieldSet);
+	}
+
+	/**
+	 * Writes input object as a JSON API document using provided generator,
+	 * including relationships named by provided include paths and writing only
+	 * attributes and relationships requested by provided fieldset. Generator is
+	 * neither flushed nor closed.
+	 *
+	 * @param object
+	 *            input object
+	 * @param generator
+	 *            target generator
+	 * @param include
+	 *            include paths
+	 * @param fieldSet
+	 *            requested fields
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public void writeJson(Object object, JsonGenerator generator, Include include, FieldSet fieldSet) {
+		try {
+			writeDocument(object, generator, include, getProjection(fieldSet));
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Writes input objects as a JSON API collection document to provided output
+	 * stream. Tokens are written straight to the stream, no intermediate tree
+	 * or String is built. The stream is flushed but not closed.
+	 *
+	 * @param objects
+	 *            input objects
+	 * @param output
+	 *            target stream
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> void writeJsonCollection(Iterable<T> objects, OutputStream output) {
+		writeJsonCollection(objects, output, FieldSet.ALL);
+	}
+
+	/**
+	 * Writes input objects as a JSON API collection document to provided output
+	 * stream, writing only attributes and relationships requested by provided
+	 * fieldset. The stream is flushed but not closed.
+	 *
+	 * @param objects
+	 *            input objects
+	 * @param output
+	 *            target stream
+	 * @param fieldSet
+	 *            requested fields
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> void writeJsonCollection(Iterable<T> objects, OutputStream output, FieldSet fieldSet) {
+		writeJsonCollection(objects, output, Include.DEFAULT, fieldSet);
+	}
+
+	/**
+	 * Writes input objects as a JSON API collection document to provided output
+	 * stream, including relationships named by provided include paths and
+	 * writing only attributes and relationships requested by provided
+	 * fieldset. The stream is flushed but not closed.
+	 *
+	 * @param objects
+	 *            input objects
+	 * @param output
+	 *            target stream
+	 * @param include
+	 *            include paths
+	 * @param fieldSet
+	 *            requested fields
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> void writeJsonCollection(Iterable<T> objects, OutputStream output, Include include,
+			FieldSet fieldSet) {
+		try (JsonGenerator generator = createGenerator(output)) {
+			writeJsonCollection(objects, generator, include, fieldSet);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Writes input objects as a JSON API collection document using provided
+	 * generator. Generator is neither flushed nor closed.
+	 *
+	 * @param objects
+	 *            input objects
+	 * @param generator
+	 *            target generator
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> void writeJsonCollection(Iterable<T> objects, JsonGenerator generator) {
+		writeJsonCollection(objects, generator, FieldSet.ALL);
+	}
+
+	/**
+	 * Writes input objects as a JSON API collection document using provided
+	 * generator, writing only attributes and relationships requested by
+	 * provided fieldset. Generator is neither flushed nor closed.
+	 *
+	 * @param objects
+	 *            input objects
+	 * @param generator
+	 *            target generator
+	 * @param fieldSet
+	 *            requested fields
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> void writeJsonCollection(Iterable<T> objects, JsonGenerator generator, FieldSet fieldSet) {
+		writeJsonCollection(objects, generator, Include.DEFAULT, fieldSet);
+	}
+
+	/**
+	 * Writes input objects as a JSON API collection document using provided
+	 * generator, including relationships named by provided include paths and
+	 * writing only attributes and relationships requested by provided
+	 * fieldset. Generator is neither flushed nor closed.
+	 *
+	 * @param objects
+	 *            input objects
+	 * @param generator
+	 *            target generator
+	 * @param include
+	 *            include paths
+	 * @param fieldSet
+	 *            requested fields
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> void writeJsonCollection(Iterable<T> objects, JsonGenerator generator, Include include,
+			FieldSet fieldSet) {
 		try {
-			JsonNode rootNode = objectMapper.readTree(data);
-
-			// Validate
-			ValidationUtils.ensureNotError(rootNode);
-			ValidationUtils.ensureCollection(rootNode);
-
-			Map<String, Object> included = parseIncluded(rootNode);
-
-			List<T> result = new ArrayList<>();
-
-			for (JsonNode element : rootNode.get(Constants.DATA)) {
-				T pojo = readJson(element, clazz, included);
-				result.add(pojo);
-			}
-
-			return result;
+			writeDocumentCollection(objects, generator, include, getProjection(fieldSet));
 		} catch (RuntimeException e) {
 			throw e;
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
+	}
 
+	/**
+	 * Writes input objects as a JSON API collection document to provided output
+	 * stream, rendering 'data' elements on provided executor. <br />
+	 *
+	 * Input is split into chunks of {@value #CHUNK_SIZE} elements, each chunk
+	 * is rendered into its own buffer on a worker thread and buffers are
+	 * written to the stream in input order, so the output is identical to the
+	 * sequential one. At most two chunks per available processor are pending at
+	 * a time, which bounds memory regardless of the input size. Input objects
+	 * must not be modified while they are written. Binary formats and indented
+	 * output cannot be rendered in chunks, their documents are written
+	 * sequentially. The stream is flushed but not closed.
+	 *
+	 * @param objects
+	 *            input objects
+	 * @param output
+	 *            target stream
+	 * @param executor
+	 *            executor rendering chunks, e.g.
+	 *            {@link java.util.concurrent.ForkJoinPool#commonPool()}
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> void writeJsonCollection(Iterable<T> objects, OutputStream output, Executor executor) {
+		writeJsonCollection(objects, output, executor, Include.DEFAULT, null);
 	}
 
 	/**
-	 * Converts provided input into a target object. After conversion completes
-	 * any relationships defined are resolved.
+	 * Writes input objects as a JSON API collection document to provided output
+	 * stream, rendering 'data' elements on provided executor, see
+	 * {@link #writeJsonCollection(Iterable, OutputStream, Executor)}.
 	 *
-	 * @param source
-	 *            JSON source
-	 * @param clazz
-	 *            target type
-	 * @param cache
-	 *            resolved objects (either from included element or already
-	 *            parsed objects)
-	 * @param <T>
-	 * @return converted target object
-	 * @throws IOException
-	 * @throws IllegalAccessException
+	 * @param objects
+	 *            input objects
+	 * @param output
+	 *            target stream
+	 * @param executor
+	 *            executor rendering chunks
+	 * @param fieldSet
+	 *            requested fields
+	 * @throws RuntimeException
+	 *             in case conversion fails
 	 */
-	private <T> T readJson(JsonNode source, Class<T> clazz,
-			Map<String, Object> cache) throws IOException,
-	IllegalAccessException, InstantiationException {
-		T result;
+	public <T> void writeJsonCollection(Iterable<T> objects, OutputStream output, Executor executor,
+			FieldSet fieldSet) {
+		writeJsonCollection(objects, output, executor, Include.DEFAULT, fieldSet);
+	}
 
-		if (source.has(Constants.ATTRIBUTES)) {
-			result = objectMapper.treeToValue(source.get(Constants.ATTRIBUTES),
-					clazz);
-		} else {
-			result = clazz.newInstance();
+	/**
+	 * Writes input objects as a JSON API collection document to provided output
+	 * stream, rendering 'data' elements on provided executor, see
+	 * {@link #writeJsonCollection(Iterable, OutputStream, Executor)}.
+	 *
+	 * @param objects
+	 *            input objects
+	 * @param output
+	 *            target stream
+	 * @param executor
+	 *            executor rendering chunks
+	 * @param include
+	 *            include paths
+	 * @param fieldSet
+	 *            requested fields
+	 * @throws RuntimeException
+	 *             in case conversion fails
+	 */
+	public <T> void writeJsonCollection(Iterable<T> objects, OutputStream output, Executor executor,
+			Include include, FieldSet fieldSet) {
+		Projection projection = getProjection(fieldSet);
+
+		if (!JsonFactory.FORMAT_NAME_JSON.equals(objectMapper.getFactory().getFormatName())
+				|| projection.getWriter().isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+			writeJsonCollection(objects, output, include, fieldSet);
+			return;
 		}
 
-		// Set object id
-		setIdValue(result, source.get(Constants.ID));
+		int maxPending = executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism() * 2
+				: Runtime.getRuntime().availableProcessors() * 2;
+		Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+		long start = startPhase();
 
-		if (cache != null) {
-			// Handle relationships
-			handleRelationships(source, result, cache);
+		try {
+			IncludedResources included = new IncludedResources(metadata, include);
+			Iterator<T> iterator = objects.iterator();
+			boolean first = true;
 
-			// Add parsed object to cache
-			cache.put(createIdentifier(source), result);
-		}
+			output.write(DATA_START);
 
-		return result;
-	}
+			while (iterator.hasNext()) {
+				List<T> chunk = new ArrayList<>(CHUNK_SIZE);
 
-	/**
-	 * Converts included data and returns it as pairs of its unique identifiers
-	 * and converted types.
-	 *
-	 * @param parent
-	 *            data source
-	 * @return identifier/object pairs
-	 * @throws IOException
-	 * @throws IllegalAccessException
-	 */
-	private Map<String, Object> parseIncluded(JsonNode parent)
-			throws IOException, IllegalAccessException, InstantiationException {
-		Map<String, Object> result = new HashMap<>();
+				while (chunk.size() < CHUNK_SIZE && iterator.hasNext()) {
+					T object = iterator.next();
+
+					if (object != null) {
+						included.addPrimary(getMetadata(object.getClass()), object);
+					}
 
-		if (parent.has(Constants.INCLUDED)) {
-			// Get resources
-			List<Resource> includedResources = getIncludedResources(parent);
+					chunk.add(object);
+				}
+
+				pending.add(CompletableFuture.supplyAsync(() -> renderChunk(chunk, projection), executor));
+
+				while (pending.size() > maxPending || (!iterator.hasNext() && !pending.isEmpty())) {
+					if (!first) {
+						output.write(',');
+					}
 
-			if (!includedResources.isEmpty()) {
-				// Add to result
-				for (Resource includedResource : includedResources) {
-					result.put(includedResource.getIdentifier(),
-							includedResource.getObject());
+					output.write(pending.poll().join());
+					first = false;
 				}
+			}
 
-				ArrayNode includedArray = (ArrayNode) parent
-						.get(Constants.INCLUDED);
+			output.write(']');
 
-				for (int i = 0; i < includedResources.size(); i++) {
-					Resource resource = includedResources.get(i);
+			if (!included.isEmpty()) {
+				output.write(INCLUDED_START);
 
-					// Handle relationships
-					JsonNode node = includedArray.get(i);
-					handleRelationships(node, resource.getObject(), result);
+				try (JsonGenerator generator = createGenerator(output)) {
+					projection.getWriter().writeValue(generator, included.getResources());
 				}
 			}
-		}
 
-		return result;
+			output.write('}');
+			output.flush();
+			endPhase(Phase.WRITE, start);
+		} catch (CompletionException e) {
+			pending.forEach(future -> future.cancel(false));
+
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+
+			throw new RuntimeException(e.getCause());
+		} catch (RuntimeException e) {
+			pending.forEach(future -> future.cancel(false));
+			throw e;
+		} catch (Exception e) {
+			pending.forEach(future -> future.cancel(false));
+			throw new RuntimeException(e);
+		}
 	}
 
 	/**
-	 * Parses out included resources excluding relationships.
+	 * Renders resource objects of provided chunk as comma separated array
+	 * elements. Elements are written as root values separated by commas, so
+	 * no enclosing array has to be cut off.
 	 *
-	 * @param parent
-	 *            root node
-	 * @return map of identifier/resource pairs
-	 * @throws IOException
-	 * @throws IllegalAccessException
-	 * @throws InstantiationException
+	 * @param chunk
+	 *            resources
+	 * @param projection
+	 *            writer of requested fields
+	 * @return UTF-8 encoded elements
 	 */
-	private List<Resource> getIncludedResources(JsonNode parent)
-			throws IOException, IllegalAccessException, InstantiationException {
-		List<Resource> result = new ArrayList<>();
-
-		if (parent.has(Constants.INCLUDED)) {
-			for (JsonNode jsonNode : parent.get(Constants.INCLUDED)) {
-				String type = jsonNode.get(Constants.TYPE).asText();
+	private byte[] renderChunk(List<?> chunk, Projection projection) {
+		ByteArrayBuilder buffer = new ByteArrayBuilder();
 
-				if (type != null) {
-					Class<?> clazz = TYPE_TO_CLASS_MAPPING.get(type);
+		try (JsonGenerator generator = createGenerator(buffer)) {
+			generator.setRootValueSeparator(ELEMENT_SEPARATOR);
+			ObjectWriter writer = projection.getWriter();
 
-					if (clazz != null) {
-						Object object = readJson(jsonNode, clazz, null);
-						result.add(new Resource(createIdentifier(jsonNode),
-								object));
-					}
-				}
+			for (Object object : chunk) {
+				writer.writeValue(generator, object);
 			}
+		} catch (IOException e) {
+			throw new CompletionException(e);
 		}
 
-		return result;
+		return buffer.toByteArray();
 	}
 
-	private void handleRelationships(JsonNode source, Object object,
-			Map<String, Object> includedData) throws IllegalAccessException,
-			IOException, InstantiationException {
-		JsonNode relationships = source.get(Constants.RELATIONSHIPS);
-
-		if (relationships != null) {
-			Iterator<String> fields = relationships.fieldNames();
-
-			while (fields.hasNext()) {
-				String field = fields.next();
-
-				JsonNode relationship = relationships.get(field);
-				Field relationshipField = RELATIONSHIP_FIELD_MAP.get(
-						object.getClass()).get(field);
+	void writeDocument(Object object, JsonGenerator generator) throws IOException {
+		writeDocument(object, generator, Include.DEFAULT, projection);
+	}
 
-				if (relationshipField != null) {
-					// Get target type
-					Class<?> type = RELATIONSHIP_TYPE_MAP
-							.get(object.getClass()).get(field);
+	private void writeDocument(Object object, JsonGenerator generator, Include include, Projection projection)
+			throws IOException {
+		long start = startPhase();
+		IncludedResources included = new IncludedResources(metadata, include);
+		included.addPrimary(getMetadata(object.getClass()), object);
+
+		generator.writeStartObject();
+		generator.writeFieldName(Constants.DATA);
+		projection.getWriter().writeValue(generator, object);
+		writeIncluded(included, generator, projection);
+		generator.writeEndObject();
+		endPhase(Phase.WRITE, start);
+	}
 
-					// In case type is not defined, relationship object cannot
-					// be processed
-					if (type == null) {
-						continue;
-					}
+	<T> void writeDocumentCollection(Iterable<T> objects, JsonGenerator generator) throws IOException {
+		writeDocumentCollection(objects, generator, Include.DEFAULT, projection);
+	}
 
-					if (isCollection(relationship)) {
+	private <T> void writeDocumentCollection(Iterable<T> objects, JsonGenerator generator, Include include,
+			Projection projection) throws IOException {
+		long start = startPhase();
+		IncludedResources included = new IncludedResources(metadata, include);
 
-						List<Object> elements = new ArrayList<>();
+		generator.writeStartObject();
+		generator.writeFieldName(Constants.DATA);
 
-						for (JsonNode element : relationship
-								.get(Constants.DATA)) {
-							Object relationshipObject = parseRelationship(
-									element, type, includedData);
-							if (relationshipObject != null) {
-								elements.add(relationshipObject);
-							}
-						}
-						relationshipField.set(object, elements);
-					} else {
-						Object relationshipObject = parseRelationship(
-								relationship.get(Constants.DATA), type,
-								includedData);
-						if (relationshipObject != null) {
-							relationshipField.set(object, relationshipObject);
-						}
-					}
+		try (SequenceWriter writer = projection.getWriter().writeValuesAsArray(generator)) {
+			for (T object : objects) {
+				if (object != null) {
+					included.addPrimary(getMetadata(object.getClass()), object);
 				}
+
+				writer.write(object);
 			}
 		}
+
+		writeIncluded(included, generator, projection);
+		generator.writeEndObject();
+		endPhase(Phase.WRITE, start);
 	}
 
 	/**
-	 * Creates relationship object by consuming provided 'data' node.
+	 * Writes a single resource object, without the enclosing document.
 	 *
-	 * @param relationshipDataNode
-	 *            relationship data node
-	 * @param type
-	 *            object type
-	 * @param cache
-	 *            object cache
-	 * @return created object or <code>null</code> in case data node is not
-	 *         valid
+	 * @param object
+	 *            resource
+	 * @param generator
+	 *            target generator
 	 * @throws IOException
-	 * @throws IllegalAccessException
-	 * @throws InstantiationException
 	 */
-	private Object parseRelationship(JsonNode relationshipDataNode,
-			Class<?> type, Map<String, Object> cache) throws IOException,
-			IllegalAccessException, InstantiationException {
-		if (ValidationUtils.isRelationshipParsable(relationshipDataNode)) {
-			String identifier = createIdentifier(relationshipDataNode);
-
-			if (cache.containsKey(identifier)) {
-				return cache.get(identifier);
-			} else {
-				return readJson(relationshipDataNode, type, cache);
-			}
-		}
+	void writeResource(Object object, JsonGenerator generator) throws IOException {
+		projection.getWriter().writeValue(generator, object);
+	}
 
-		return null;
+	private JsonGenerator createGenerator(OutputStream output) throws IOException {
+		JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		return generator;
 	}
 
 	/**
-	 * Generates unique resource identifier by combining resource type and
-	 * resource id fields. <br />
-	 * By specification id/type combination guarantees uniqueness.
+	 * Writes top level 'included' array holding collected resources, each of
+	 * them once.
 	 *
-	 * @param object
-	 *            data object
-	 * @return concatenated id and type values
+	 * @param included
+	 *            resources collected while writing primary data
+	 * @param generator
+	 *            target generator
+	 * @param projection
+	 *            writer of requested fields
+	 * @throws IOException
 	 */
-	private String createIdentifier(JsonNode object) {
-
-		JsonNode idValue = object.get(Constants.ID);
-		Object id = "";
-
-		if (idValue != null && idValue.asText() != null
-				&& idValue.asText() != "") {
-			id = object.get(Constants.ID);
+	private void writeIncluded(IncludedResources included, JsonGenerator generator, Projection projection)
+			throws IOException {
+		if (included.isEmpty()) {
+			return;
 		}
 
-		String type = object.get(Constants.TYPE).asText();
-		return type.concat(id.toString());
+		generator.writeFieldName(Constants.INCLUDED);
+		projection.getWriter().writeValue(generator, included.getResources());
 	}
 
 	/**
-	 * Sets an id attribute value to a target object.
-	 *
-	 * @param target
-	 *            target POJO
-	 * @param idValue
-	 *            id node
-	 * @throws IllegalAccessException
-	 *             thrown in case target field is not accessible
+	 * @return reader binding the 'errors' member, derived from this
+	 *         resolver's mapper
 	 */
-	private void setIdValue(Object target, JsonNode idValue)
-			throws IllegalAccessException {
-		Field idField = ID_MAP.get(target.getClass());
-
-		// By specification, id value is always a String type
-
-		if (idValue != null && idValue.asText() != null
-				&& idValue.asText() != "") {
-			idField.set(target, Integer.parseInt(idValue.asText()));
-		}
-
+	ObjectReader getErrorsReader() {
+		return errorsReader;
 	}
 
 	/**
-	 * Checks if <code>data</code> object is an array or just single object
-	 * holder.
+	 * Sets listener receiving conversion timings and counts, <code>null</code>
+	 * to disable metrics. Metrics are disabled by default and should be set
+	 * before the resolver is shared between threads.
 	 *
-	 * @param source
-	 *            data node
-	 * @return <code>true</code> if data node is an array else
-	 *         <code>false</code>
+	 * @param metrics
+	 *            metrics listener
 	 */
-	private boolean isCollection(JsonNode source) {
-		JsonNode data = source.get(Constants.DATA);
-		return data != null && data.isArray();
+	public void setMetrics(ResolverMetrics metrics) {
+		this.metrics = metrics;
 	}
 
 	/**
-	 * Converts input object to String.
+	 * Sets limits enforced while documents are read, <code>null</code> to
+	 * remove limits. Documents read through {@link JsonApiModule} are not
+	 * limited.
 	 *
-	 * @param object
-	 *            input object
-	 * @return json in String
-	 * @throws JsonProcessingException
-	 * @throws IllegalAccessException
+	 * @param validationPolicy
+	 *            validation policy
 	 */
-	public String writeJson(Object object) {
-		String json = "";
-
-		try {
-			ObjectNode dataNode = getDataNode(object);
-			ObjectNode result = objectMapper.createObjectNode();
-
-			result.set(Constants.DATA, dataNode);
-
-			// Include Field
-			List<Field> includeFields = RELATIONSHIPS_MAP
-					.get(object.getClass());
-			ObjectNode includedNode = objectMapper.createObjectNode();
-
-			for (Field includeField : includeFields) {
-				boolean isInclude = includeField.getAnnotation(
-						JsonRelation.class).included();
-
-				if (!isInclude) {
-					continue;
-				}
-
-				Object relationshipObject = includeField.get(object);
-
-				if (relationshipObject != null) {
-					JsonRelation jsonRelation = includeField
-							.getAnnotation(JsonRelation.class);
-
-					String relationshipName = jsonRelation.value();
-
-					if (relationshipObject instanceof List) {
-						ArrayNode dataArrayNode = objectMapper
-								.createArrayNode();
-
-						for (Object element : (List<?>) relationshipObject) {
-							String relationshipType = TYPE_ANNOTATIONS.get(
-									element.getClass()).value();
-							Integer idValue = (Integer) ID_MAP.get(
-									element.getClass()).get(element);
-
-							ObjectNode identifierNode = objectMapper
-									.createObjectNode();
-
-							identifierNode
-									.put(Constants.TYPE, relationshipType);
-							identifierNode
-									.put(Constants.ID, idValue.toString());
-
-							// Included Attribute
-							ObjectNode elementNode = objectMapper
-									.valueToTree(element);
-							Field elementIdField = ID_MAP.get(element
-									.getClass());
-							elementNode.remove(elementIdField.getName());
-							identifierNode.set(Constants.ATTRIBUTES,
-									elementNode);
-
-							dataArrayNode.add(identifierNode);
-						}
-
-						ObjectNode relationshipDataNode = objectMapper
-								.createObjectNode();
-						relationshipDataNode.set(Constants.DATA, dataArrayNode);
-						includedNode
-								.set(relationshipName, relationshipDataNode);
-
-					} else {
-						String relationshipType = TYPE_ANNOTATIONS.get(
-								relationshipObject.getClass()).value();
-						String idValue = (String) ID_MAP.get(
-								relationshipObject.getClass()).get(
-								relationshipObject);
-
-						ObjectNode identifierNode = objectMapper
-								.createObjectNode();
-						identifierNode.put(Constants.TYPE, relationshipType);
-						identifierNode.put(Constants.ID, idValue);
-
-						ObjectNode relationshipDataNode = objectMapper
-								.createObjectNode();
-						relationshipDataNode
-								.set(Constants.DATA, identifierNode);
-
-						includedNode
-								.set(relationshipName, relationshipDataNode);
-					}
-				}
-			}
-
-			if (includedNode.size() > 0) {
-				result.set(Constants.INCLUDED, includedNode);
-			}
-
-			json = objectMapper.writeValueAsString(result);
-		} catch (JsonProcessingException ex) {
-			System.out.println("Error in writeObject");
-		} catch (IllegalAccessException ex) {
-			System.out.println("Error in writeObject");
-		}
-
-		return json;
+	public void setValidationPolicy(ValidationPolicy validationPolicy) {
+		this.validationPolicy = validationPolicy != null ? validationPolicy : ValidationPolicy.NONE;
 	}
 
-	private ObjectNode getDataNode(Object object) throws IllegalAccessException {
-
-		// Perform initial conversion
-		ObjectNode attributesNode = objectMapper.valueToTree(object);
-
-		// Remove id, meta and relationship fields
-		Field idField = ID_MAP.get(object.getClass());
-		attributesNode.remove(idField.getName());
-
-		// Handle resource identifier
-		ObjectNode dataNode = objectMapper.createObjectNode();
-		dataNode.put(Constants.TYPE, TYPE_ANNOTATIONS.get(object.getClass())
-				.value());
-
-		Integer resourceId = (Integer) idField.get(object);
-		if (resourceId != null) {
-			dataNode.put(Constants.ID, resourceId.toString());
-		}
-		dataNode.set(Constants.ATTRIBUTES, attributesNode);
-
-		// Handle relationships (remove from base type and add as relationships)
-		List<Field> relationshipFields = RELATIONSHIPS_MAP.get(object
-				.getClass());
-
-		if (relationshipFields != null) {
-			ObjectNode relationshipsNode = objectMapper.createObjectNode();
-
-			for (Field relationshipField : relationshipFields) {
-				Object relationshipObject = relationshipField.get(object);
-
-				boolean isList = relationshipObject instanceof List;
-				if (isList) {
-					@SuppressWarnings("unchecked")
-					List<Object> relationList = (List<Object>) relationshipObject;
-
-					if (relationList.size() == 0) {
-						continue;
-					}
-				}
-
-				if (relationshipObject != null) {
-					attributesNode.remove(relationshipField.getName());
-
-					JsonRelation jsonRelation = relationshipField
-							.getAnnotation(JsonRelation.class);
-
-					String relationshipName = jsonRelation.value();
-
-					if (relationshipObject instanceof List) {
-						ArrayNode dataArrayNode = objectMapper
-								.createArrayNode();
-
-						for (Object element : (List<?>) relationshipObject) {
-							String relationshipType = TYPE_ANNOTATIONS.get(
-									element.getClass()).value();
-							Integer idValue = (Integer) ID_MAP.get(
-									element.getClass()).get(element);
+	ValidationPolicy getValidationPolicy() {
+		return validationPolicy;
+	}
 
-							ObjectNode identifierNode = objectMapper
-									.createObjectNode();
-							identifierNode
-									.put(Constants.TYPE, relationshipType);
-							identifierNode
-									.put(Constants.ID, idValue.toString());
-							dataArrayNode.add(identifierNode);
-						}
+	/**
+	 * Sets cache of encoded resource objects, <code>null</code> to disable
+	 * caching. Resources are cached when written with all their fields, i.e.
+	 * without a fieldset. Cache should be set before the resolver is shared
+	 * between threads.
+	 *
+	 * @param fragmentCache
+	 *            fragment cache
+	 */
+	public void setFragmentCache(FragmentCache fragmentCache) {
+		this.fragmentCache = fragmentCache;
+		this.projection = Projection.create(objectMapper, metadata, FieldSet.ALL, fragmentCache);
+	}
 
-						ObjectNode relationshipDataNode = objectMapper
-								.createObjectNode();
-						relationshipDataNode.set(Constants.DATA, dataArrayNode);
-						relationshipsNode.set(relationshipName,
-								relationshipDataNode);
+	public FragmentCache getFragmentCache() {
+		return fragmentCache;
+	}
 
-					} else {
-						String relationshipType = TYPE_ANNOTATIONS.get(
-								relationshipObject.getClass()).value();
-						String idValue = (String) ID_MAP.get(
-								relationshipObject.getClass()).get(
-								relationshipObject);
-
-						ObjectNode identifierNode = objectMapper
-								.createObjectNode();
-						identifierNode.put(Constants.TYPE, relationshipType);
-						identifierNode.put(Constants.ID, idValue);
-
-						ObjectNode relationshipDataNode = objectMapper
-								.createObjectNode();
-						relationshipDataNode
-								.set(Constants.DATA, identifierNode);
-
-						relationshipsNode.set(relationshipName,
-								relationshipDataNode);
-					}
-				}
+	/**
+	 * @return start time of a phase or 0 in case metrics are disabled
+	 */
+	private long startPhase() {
+		return metrics != null ? System.nanoTime() : 0L;
+	}
 
-			}
+	private void endPhase(Phase phase, long start) {
+		ResolverMetrics metrics = this.metrics;
 
-			if (relationshipsNode.size() > 0) {
-				dataNode.set(Constants.RELATIONSHIPS, relationshipsNode);
-			}
+		if (metrics != null && start != 0L) {
+			metrics.phase(phase, System.nanoTime() - start);
 		}
-		return dataNode;
 	}
 
 	/**
-	 * Converts input object to String.
+	 * Returns projection of provided fieldset. Projections are cached, up to
+	 * {@value #MAX_PROJECTIONS} distinct fieldsets, so that serializers and
+	 * deserializers of a fieldset are built once.
 	 *
-	 * @param objects
-	 *            List of input objects
-	 * @return json in String
-	 * @throws JsonProcessingException
-	 * @throws IllegalAccessException
+	 * @param fieldSet
+	 *            requested fields, <code>null</code> for all
+	 * @return projection
 	 */
-	public <T> String writeJsonCollection(Iterable<T> objects) {
+	private Projection getProjection(FieldSet fieldSet) {
+		if (fieldSet == null || fieldSet.isEmpty()) {
+			return projection;
+		}
 
-		String json = "";
+		Projection result = projections.get(fieldSet);
 
-		try {
-			ArrayNode results = objectMapper.createArrayNode();
+		if (result == null) {
+			result = Projection.create(objectMapper, metadata, fieldSet);
 
-			for (T object : objects) {
-				results.add(getDataNode(object));
+			if (projections.size() < MAX_PROJECTIONS) {
+				Projection existing = projections.putIfAbsent(fieldSet, result);
+				result = existing != null ? existing : result;
 			}
-
-			ObjectNode result = objectMapper.createObjectNode();
-			result.set(Constants.DATA, results);
-			return objectMapper.writeValueAsString(result);
-		} catch (JsonProcessingException ex) {
-			System.out.println("Error in writeObject");
-		} catch (IllegalAccessException ex) {
-			System.out.println("Error in writeObject");
 		}
 
-		return json;
+		return result;
 	}
 
 	/**
@@ -692,16 +1928,37 @@ public class ResourceResolver {
 	 *         <code>false</code>
 	 */
 	public boolean isRegisteredType(Class<?> type) {
-		return TYPE_ANNOTATIONS.containsKey(type);
+		return metadata.containsKey(type);
+	}
+
+	/**
+	 * Returns metadata of provided registered type.
+	 *
+	 * @param type
+	 *            resource class
+	 * @return resource metadata
+	 * @throws IllegalArgumentException
+	 *             in case type is not registered with this converter instance
+	 */
+	private ResourceMetadata getMetadata(Class<?> type) {
+		ResourceMetadata resourceMetadata = metadata.get(type);
+
+		if (resourceMetadata == null) {
+			throw new IllegalArgumentException(type.getName() + " is not registered with this resolver!");
+		}
+
+		return resourceMetadata;
 	}
 
 	private static class Resource {
 		private String identifier;
 		private Object object;
+		private JsonNode relationships;
 
-		public Resource(String identifier, Object resource) {
+		public Resource(String identifier, Object resource, JsonNode relationships) {
 			this.identifier = identifier;
 			this.object = resource;
+			this.relationships = relationships;
 		}
 
 		public String getIdentifier() {
@@ -711,6 +1968,10 @@ public class ResourceResolver {
 		public Object getObject() {
 			return object;
 		}
+
+		public JsonNode getRelationships() {
+			return relationships;
+		}
 	}
 
 }
\ No newline at end of file
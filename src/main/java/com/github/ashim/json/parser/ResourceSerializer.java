@@ -0,0 +1,236 @@
+package com.github.ashim.json.parser;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.github.ashim.json.common.Constants;
+import com.github.ashim.json.parser.ResourceMetadata.Relationship;
+
+/**
+ * Writes a registered resource class as a JSON API resource object. <br />
+ *
+ * 'type', 'id', 'attributes' and 'relationships' are written in a single pass.
+ * Attributes are delegated to the bean serializer of the class, which never
+ * contains id and relationship properties (see
+ * {@link ResourceSerializerModifier}), so nothing has to be removed afterwards.
+ * <br />
+ *
+ * With a {@link FragmentCache}, versioned resources written as JSON text are
+ * encoded once per version and spliced into the output as raw values.
+ *
+ * @author Ashim Jung Khadka
+ */
+class ResourceSerializer extends StdSerializer<Object> implements ContextualSerializer, ResolvableSerializer {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final SerializedString TYPE = new SerializedString(Constants.TYPE);
+	private static final SerializedString DATA = new SerializedString(Constants.DATA);
+	private static final SerializedString ATTRIBUTES = new SerializedString(Constants.ATTRIBUTES);
+	private static final SerializedString RELATIONSHIPS = new SerializedString(Constants.RELATIONSHIPS);
+
+	/**
+	 * Generator features changing how a fragment is encoded.
+	 */
+	private static final int ENCODING_FEATURES = JsonGenerator.Feature.QUOTE_FIELD_NAMES.getMask()
+			| JsonGenerator.Feature.QUOTE_NON_NUMERIC_NUMBERS.getMask()
+			| JsonGenerator.Feature.WRITE_NUMBERS_AS_STRINGS.getMask()
+			| JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN.getMask()
+			| JsonGenerator.Feature.ESCAPE_NON_ASCII.getMask();
+
+	private final transient ResourceMetadata resourceMetadata;
+	private final transient Map<Class<?>, ResourceMetadata> metadata;
+	private final transient FieldSet fieldSet;
+	private final JsonSerializer<Object> attributesSerializer;
+	private final transient FragmentCache cache;
+	private final transient JsonFactory factory;
+
+	/**
+	 * @param cache
+	 *            cache of encoded resources or <code>null</code>
+	 * @param factory
+	 *            factory of generators encoding cached resources
+	 */
+	ResourceSerializer(ResourceMetadata resourceMetadata, Map<Class<?>, ResourceMetadata> metadata, FieldSet fieldSet,
+			JsonSerializer<Object> attributesSerializer, FragmentCache cache, JsonFactory factory) {
+		super(Object.class);
+		this.resourceMetadata = resourceMetadata;
+		this.metadata = metadata;
+		this.fieldSet = fieldSet;
+		this.attributesSerializer = attributesSerializer;
+		this.cache = resourceMetadata.getVersionAccessor() != null ? cache : null;
+		this.factory = factory;
+	}
+
+	@Override
+	public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		if (cache == null || !(gen instanceof JsonGeneratorImpl) || gen.getPrettyPrinter() != null
+				|| gen.getCharacterEscapes() != null) {
+			writeResource(value, gen, provider);
+			return;
+		}
+
+		Object version = resourceMetadata.getVersionAccessor().get(value);
+		String id = resourceMetadata.getIdCodec().format(value);
+
+		if (version == null || id == null) {
+			writeResource(value, gen, provider);
+			return;
+		}
+
+		long encoding = (long) gen.getHighestEscapedChar() << 32 | (gen.getFeatureMask() & ENCODING_FEATURES);
+		SerializableString fragment = cache.get(resourceMetadata.getType(), id, version, encoding);
+
+		if (fragment == null) {
+			fragment = encode(value, gen, provider);
+			cache.put(resourceMetadata.getType(), id, version, encoding, fragment);
+		}
+
+		gen.writeRawValue(fragment);
+	}
+
+	/**
+	 * Encodes resource object using a generator configured like provided one.
+	 *
+	 * @return resource object, encoded as UTF-8 up front
+	 */
+	private SerializableString encode(Object value, JsonGenerator gen, SerializerProvider provider)
+			throws IOException {
+		StringWriter writer = new StringWriter();
+
+		try (JsonGenerator fragmentGenerator = factory.createGenerator(writer)) {
+			fragmentGenerator.overrideStdFeatures(gen.getFeatureMask(), -1);
+			// Despite its name the getter returns what setHighestNonEscapedChar
+			// set, e.g. 127 with ESCAPE_NON_ASCII
+			fragmentGenerator.setHighestNonEscapedChar(gen.getHighestEscapedChar());
+			writeResource(value, fragmentGenerator, provider);
+		}
+
+		SerializedString fragment = new SerializedString(writer.toString());
+		fragment.asUnquotedUTF8();
+		return fragment;
+	}
+
+	private void writeResource(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		gen.writeStartObject();
+		writeIdentifierFields(resourceMetadata, value, gen, false);
+
+		gen.writeFieldName(ATTRIBUTES);
+		attributesSerializer.serialize(value, gen, provider);
+
+		boolean hasRelationships = false;
+
+		for (Relationship relationship : resourceMetadata.getRelationships()) {
+			if (!fieldSet.contains(resourceMetadata.getType(), relationship.getName())) {
+				continue;
+			}
+
+			Object relationshipObject = relationship.getAccessor().get(value);
+
+			if (relationshipObject == null
+					|| (relationshipObject instanceof List && ((List<?>) relationshipObject).isEmpty())) {
+				continue;
+			}
+
+			if (!hasRelationships) {
+				gen.writeFieldName(RELATIONSHIPS);
+				gen.writeStartObject();
+				hasRelationships = true;
+			}
+
+			gen.writeFieldName(relationship.getEncodedName());
+			gen.writeStartObject();
+			gen.writeFieldName(DATA);
+
+			if (relationshipObject instanceof List) {
+				gen.writeStartArray();
+
+				for (Object element : (List<?>) relationshipObject) {
+					writeLinkage(getMetadata(element.getClass(), gen), element, gen);
+				}
+
+				gen.writeEndArray();
+			} else {
+				writeLinkage(getMetadata(relationshipObject.getClass(), gen), relationshipObject, gen);
+			}
+
+			gen.writeEndObject();
+		}
+
+		if (hasRelationships) {
+			gen.writeEndObject();
+		}
+
+		gen.writeEndObject();
+	}
+
+	private ResourceMetadata getMetadata(Class<?> type, JsonGenerator gen) throws JsonMappingException {
+		ResourceMetadata relationshipMetadata = metadata.get(type);
+
+		if (relationshipMetadata == null) {
+			throw JsonMappingException.from(gen, type.getName() + " is not registered with this resolver!");
+		}
+
+		return relationshipMetadata;
+	}
+
+	/**
+	 * Writes resource identifier object holding 'type' and 'id' of provided
+	 * resource.
+	 *
+	 * @param resourceMetadata
+	 *            resource metadata
+	 * @param value
+	 *            resource
+	 * @param gen
+	 *            target generator
+	 * @throws IOException
+	 */
+	static void writeLinkage(ResourceMetadata resourceMetadata, Object value, JsonGenerator gen) throws IOException {
+		gen.writeStartObject();
+		writeIdentifierFields(resourceMetadata, value, gen, true);
+		gen.writeEndObject();
+	}
+
+	private static void writeIdentifierFields(ResourceMetadata resourceMetadata, Object value, JsonGenerator gen,
+			boolean linkage) throws IOException {
+		gen.writeFieldName(TYPE);
+		gen.writeString(resourceMetadata.getEncodedType());
+		resourceMetadata.getIdCodec().write(value, gen, linkage);
+	}
+
+	@Override
+	public void resolve(SerializerProvider provider) throws JsonMappingException {
+		if (attributesSerializer instanceof ResolvableSerializer) {
+			((ResolvableSerializer) attributesSerializer).resolve(provider);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+			throws JsonMappingException {
+		JsonSerializer<?> contextual = provider.handlePrimaryContextualization(attributesSerializer, property);
+
+		if (contextual == attributesSerializer) {
+			return this;
+		}
+
+		return new ResourceSerializer(resourceMetadata, metadata, fieldSet, (JsonSerializer<Object>) contextual,
+				cache, factory);
+	}
+}
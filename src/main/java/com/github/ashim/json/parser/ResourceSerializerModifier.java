@@ -0,0 +1,86 @@
+package com.github.ashim.json.parser;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.github.ashim.json.parser.ResourceMetadata.Relationship;
+
+/**
+ * Turns serializers of registered resource classes into
+ * {@link ResourceSerializer}s. <br />
+ *
+ * Id and relationship properties, as well as attributes left out by the
+ * fieldset, are dropped from the bean serializer up front, so that the
+ * remaining bean serializer writes exactly the 'attributes' object of the
+ * resource.
+ *
+ * @author Ashim Jung Khadka
+ */
+class ResourceSerializerModifier extends BeanSerializerModifier {
+
+	private final Map<Class<?>, ResourceMetadata> metadata;
+	private final FieldSet fieldSet;
+	private final FragmentCache cache;
+	private final JsonFactory factory;
+
+	ResourceSerializerModifier(Map<Class<?>, ResourceMetadata> metadata, FieldSet fieldSet, FragmentCache cache,
+			JsonFactory factory) {
+		this.metadata = metadata;
+		this.fieldSet = fieldSet;
+		this.cache = cache;
+		this.factory = factory;
+	}
+
+	@Override
+	public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+			List<BeanPropertyWriter> beanProperties) {
+		ResourceMetadata resourceMetadata = metadata.get(beanDesc.getBeanClass());
+
+		if (resourceMetadata == null) {
+			return beanProperties;
+		}
+
+		Set<String> excluded = new HashSet<>();
+		excluded.add(resourceMetadata.getIdAccessor().getName());
+
+		for (Relationship relationship : resourceMetadata.getRelationships()) {
+			excluded.add(relationship.getAccessor().getName());
+		}
+
+		String type = resourceMetadata.getType();
+		Iterator<BeanPropertyWriter> properties = beanProperties.iterator();
+
+		while (properties.hasNext()) {
+			String name = properties.next().getName();
+
+			if (excluded.contains(name) || !fieldSet.contains(type, name)) {
+				properties.remove();
+			}
+		}
+
+		return beanProperties;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+			JsonSerializer<?> serializer) {
+		ResourceMetadata resourceMetadata = metadata.get(beanDesc.getBeanClass());
+
+		if (resourceMetadata == null) {
+			return serializer;
+		}
+
+		return new ResourceSerializer(resourceMetadata, metadata, fieldSet, (JsonSerializer<Object>) serializer, cache,
+				factory);
+	}
+}
@@ -0,0 +1,377 @@
+package com.github.ashim.json.parser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.github.ashim.json.common.Constants;
+import com.github.ashim.json.exception.ValidationException;
+
+/**
+ * Parser checking nesting depth and string length of every token against a
+ * validation policy. Document size is enforced on the input itself, see
+ * {@link #limit(InputStream, ValidationPolicy, boolean)}, and relationship
+ * fan-out while 'relationships' is read, see
+ * {@link #limitFanOut(JsonParser, ValidationPolicy)}. <br />
+ *
+ * String length is checked once a string token has been read, i.e. after
+ * the parser has buffered all of it. For JSON streams the limit is therefore
+ * applied underneath the parser as well: a string taking more than
+ * {@value #MAX_BYTES_PER_CHAR} bytes per allowed character, the length of a
+ * <code>&#92;uXXXX</code> escape, cannot fit the limit and fails as soon as its
+ * bytes are read. In-memory input is already buffered as a whole. <br />
+ *
+ * Convenience methods like <code>nextFieldName()</code> are implemented by
+ * <code>JsonParser</code> on top of {@link #nextToken()}, and
+ * {@link #skipChildren()} walks skipped tokens one at a time, so no token
+ * escapes validation.
+ *
+ * @author Ashim Jung Khadka
+ */
+final class ValidatingParser extends JsonParserDelegate {
+
+	/**
+	 * Longest encoding of a single character in a JSON string.
+	 */
+	static final int MAX_BYTES_PER_CHAR = 6;
+
+	private final ValidationPolicy policy;
+	private int depth;
+
+	private ValidatingParser(JsonParser parser, ValidationPolicy policy) {
+		super(parser);
+		this.policy = policy;
+	}
+
+	/**
+	 * Wraps provided parser in case policy limits tokens.
+	 *
+	 * @param parser
+	 *            document parser
+	 * @param policy
+	 *            validation policy
+	 * @return validating or provided parser
+	 */
+	static JsonParser wrap(JsonParser parser, ValidationPolicy policy) {
+		return policy.limitsTokens() ? new ValidatingParser(parser, policy) : parser;
+	}
+
+	/**
+	 * Wraps provided stream in case policy limits document size or, for JSON
+	 * streams, string length, so that reading stops once the limit is
+	 * crossed, even within a token.
+	 *
+	 * @param input
+	 *            document stream
+	 * @param policy
+	 *            validation policy
+	 * @param json
+	 *            whether stream holds JSON text, which strings can be found
+	 *            in
+	 * @return limited or provided stream
+	 */
+	static InputStream limit(InputStream input, ValidationPolicy policy, boolean json) {
+		long maxStringBytes = json && policy.getMaxStringLength() != Integer.MAX_VALUE
+				? (long) policy.getMaxStringLength() * MAX_BYTES_PER_CHAR
+				: Long.MAX_VALUE;
+
+		return policy.getMaxDocumentSize() != Long.MAX_VALUE || maxStringBytes != Long.MAX_VALUE
+				? new LimitedInputStream(input, policy.getMaxDocumentSize(), maxStringBytes)
+				: input;
+	}
+
+	/**
+	 * Wraps parser positioned at the START_OBJECT token of a 'relationships'
+	 * member in case policy limits fan-out, so that reading fails as soon as
+	 * a 'data' array has one linkage too many.
+	 *
+	 * @param parser
+	 *            document parser
+	 * @param policy
+	 *            validation policy
+	 * @return counting or provided parser
+	 */
+	static JsonParser limitFanOut(JsonParser parser, ValidationPolicy policy) {
+		return policy.getMaxFanOut() != Integer.MAX_VALUE ? new FanOutParser(parser, policy.getMaxFanOut()) : parser;
+	}
+
+	/**
+	 * Ensures document of known size does not exceed maximum document size,
+	 * before any of it is read.
+	 *
+	 * @param size
+	 *            number of bytes of the document
+	 * @param policy
+	 *            validation policy
+	 * @throws ValidationException
+	 *             in case document is too large
+	 */
+	static void ensureSize(long size, ValidationPolicy policy) {
+		ensureSize(size, 0, policy);
+	}
+
+	/**
+	 * Ensures document does not exceed maximum document size once provided
+	 * number of bytes is read.
+	 *
+	 * @param size
+	 *            number of bytes of the document read so far
+	 * @param offset
+	 *            offset the document is checked at, i.e. number of bytes
+	 *            already accepted
+	 * @param policy
+	 *            validation policy
+	 * @throws ValidationException
+	 *             in case document is too large
+	 */
+	static void ensureSize(long size, long offset, ValidationPolicy policy) {
+		if (size > policy.getMaxDocumentSize()) {
+			throw new ValidationException(
+					"Document exceeds maximum size of " + policy.getMaxDocumentSize() + " bytes!", offset);
+		}
+	}
+
+	@Override
+	public JsonToken nextToken() throws IOException {
+		JsonToken token = delegate.nextToken();
+
+		if (token == null) {
+			return null;
+		}
+
+		if (token.isStructStart()) {
+			if (++depth > policy.getMaxDepth()) {
+				throw violation("Document exceeds maximum nesting depth of " + policy.getMaxDepth() + "!");
+			}
+		} else if (token.isStructEnd()) {
+			depth--;
+		} else if ((token == JsonToken.VALUE_STRING || token == JsonToken.FIELD_NAME)
+				&& policy.getMaxStringLength() != Integer.MAX_VALUE
+				&& delegate.getTextLength() > policy.getMaxStringLength()) {
+			throw violation("String exceeds maximum length of " + policy.getMaxStringLength() + " characters!");
+		}
+
+		return token;
+	}
+
+	@Override
+	public JsonToken nextValue() throws IOException {
+		JsonToken token = nextToken();
+		return token == JsonToken.FIELD_NAME ? nextToken() : token;
+	}
+
+	@Override
+	public JsonParser skipChildren() throws IOException {
+		JsonToken token = getCurrentToken();
+
+		if (token == null || !token.isStructStart()) {
+			return this;
+		}
+
+		int open = 1;
+
+		while ((token = nextToken()) != null) {
+			if (token.isStructStart()) {
+				open++;
+			} else if (token.isStructEnd() && --open == 0) {
+				break;
+			}
+		}
+
+		return this;
+	}
+
+	private ValidationException violation(String message) {
+		return new ValidationException(message, delegate.getTokenLocation().getByteOffset());
+	}
+
+	/**
+	 * Parser counting elements of 'data' arrays of a 'relationships' member.
+	 * Relationship objects are nested at depth 2, their 'data' elements at
+	 * depth 3.
+	 */
+	private static final class FanOutParser extends JsonParserDelegate {
+
+		private static final int RELATIONSHIP_DEPTH = 2;
+		private static final int LINKAGE_DEPTH = 3;
+
+		private final int maxFanOut;
+		private int depth = 1;
+		private boolean data;
+		private int linkages = -1;
+
+		FanOutParser(JsonParser parser, int maxFanOut) {
+			super(parser);
+			this.maxFanOut = maxFanOut;
+		}
+
+		@Override
+		public JsonToken nextToken() throws IOException {
+			JsonToken token = delegate.nextToken();
+
+			if (token == null) {
+				return null;
+			}
+
+			if (linkages >= 0 && depth == LINKAGE_DEPTH && token != JsonToken.END_ARRAY && ++linkages > maxFanOut) {
+				throw new ValidationException("Relationship exceeds maximum fan-out of " + maxFanOut + " resources!",
+						delegate.getTokenLocation().getByteOffset());
+			}
+
+			if (token.isStructStart()) {
+				if (data && token == JsonToken.START_ARRAY) {
+					linkages = 0;
+				}
+
+				depth++;
+			} else if (token.isStructEnd() && --depth == RELATIONSHIP_DEPTH) {
+				linkages = -1;
+			}
+
+			data = token == JsonToken.FIELD_NAME && depth == RELATIONSHIP_DEPTH
+					&& Constants.DATA.equals(delegate.getCurrentName());
+
+			return token;
+		}
+
+		@Override
+		public JsonToken nextValue() throws IOException {
+			JsonToken token = nextToken();
+			return token == JsonToken.FIELD_NAME ? nextToken() : token;
+		}
+
+		@Override
+		public JsonParser skipChildren() throws IOException {
+			JsonToken token = getCurrentToken();
+
+			if (token == null || !token.isStructStart()) {
+				return this;
+			}
+
+			int open = 1;
+
+			while ((token = nextToken()) != null) {
+				if (token.isStructStart()) {
+					open++;
+				} else if (token.isStructEnd() && --open == 0) {
+					break;
+				}
+			}
+
+			return this;
+		}
+	}
+
+	/**
+	 * Stream failing once more than maximum document size bytes are read, or
+	 * a JSON string takes more than the maximum number of bytes. Strings are
+	 * found by tracking quotes and escapes of the bytes read.
+	 */
+	private static final class LimitedInputStream extends FilterInputStream {
+
+		private final long maxSize;
+		private final long maxStringBytes;
+		private long position;
+		private boolean string;
+		private boolean escape;
+		private long stringBytes;
+
+		LimitedInputStream(InputStream input, long maxSize, long maxStringBytes) {
+			super(input);
+			this.maxSize = maxSize;
+			this.maxStringBytes = maxStringBytes;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int result = super.read();
+
+			if (result >= 0) {
+				scan(result, position);
+				advance(1);
+			}
+
+			return result;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int result = super.read(b, off, len);
+
+			if (result > 0) {
+				if (maxStringBytes != Long.MAX_VALUE) {
+					for (int i = 0; i < result; i++) {
+						scan(b[off + i], position + i);
+					}
+				}
+
+				advance(result);
+			}
+
+			return result;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			if (maxStringBytes != Long.MAX_VALUE) {
+				// Skipped bytes have to be scanned for strings
+				byte[] buffer = new byte[(int) Math.min(n, 512)];
+				return Math.max(read(buffer, 0, buffer.length), 0);
+			}
+
+			long result = super.skip(n);
+			advance(result);
+			return result;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		/**
+		 * Tracks JSON strings.
+		 *
+		 * @param c
+		 *            byte read
+		 * @param offset
+		 *            offset of the byte
+		 */
+		private void scan(int c, long offset) {
+			if (maxStringBytes == Long.MAX_VALUE) {
+				return;
+			}
+
+			if (!string) {
+				if (c == '"') {
+					string = true;
+					stringBytes = 0;
+				}
+			} else if (escape) {
+				escape = false;
+				stringBytes++;
+			} else if (c == '"') {
+				string = false;
+			} else {
+				escape = c == '\\';
+				stringBytes++;
+			}
+
+			if (stringBytes > maxStringBytes) {
+				throw new ValidationException("String exceeds maximum length of "
+						+ maxStringBytes / MAX_BYTES_PER_CHAR + " characters!", offset);
+			}
+		}
+
+		private void advance(long count) {
+			position += count;
+
+			if (position > maxSize) {
+				throw new ValidationException("Document exceeds maximum size of " + maxSize + " bytes!", position);
+			}
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package com.github.ashim.json.parser;
+
+/**
+ * Limits enforced while a document is parsed, protecting readers from hostile
+ * payloads. <br />
+ *
+ * Limits are checked as tokens are read, so an oversized document is rejected
+ * as soon as a limit is crossed instead of once it has been parsed. Violations
+ * are reported as {@link com.github.ashim.json.exception.ValidationException}
+ * carrying the byte offset they were detected at. Instances are immutable.
+ *
+ * <pre>
+ * resolver.setValidationPolicy(ValidationPolicy.NONE.withMaxDocumentSize(1 &lt;&lt; 20).withMaxIncluded(1000));
+ * </pre>
+ *
+ * @author Ashim Jung Khadka
+ */
+public final class ValidationPolicy {
+
+	/**
+	 * Policy without limits.
+	 */
+	public static final ValidationPolicy NONE = new ValidationPolicy(Long.MAX_VALUE, Integer.MAX_VALUE,
+			Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+	private final long maxDocumentSize;
+	private final int maxIncluded;
+	private final int maxFanOut;
+	private final int maxDepth;
+	private final int maxStringLength;
+
+	private ValidationPolicy(long maxDocumentSize, int maxIncluded, int maxFanOut, int maxDepth,
+			int maxStringLength) {
+		this.maxDocumentSize = maxDocumentSize;
+		this.maxIncluded = maxIncluded;
+		this.maxFanOut = maxFanOut;
+		this.maxDepth = maxDepth;
+		this.maxStringLength = maxStringLength;
+	}
+
+	/**
+	 * Returns copy of this policy limiting document size.
+	 *
+	 * @param maxDocumentSize
+	 *            maximum number of bytes of a document
+	 * @return policy
+	 * @throws IllegalArgumentException
+	 *             in case limit is not positive
+	 */
+	public ValidationPolicy withMaxDocumentSize(long maxDocumentSize) {
+		ensurePositive(maxDocumentSize, "document size");
+		return new ValidationPolicy(maxDocumentSize, maxIncluded, maxFanOut, maxDepth, maxStringLength);
+	}
+
+	/**
+	 * Returns copy of this policy limiting number of included resources.
+	 *
+	 * @param maxIncluded
+	 *            maximum number of elements of 'included'
+	 * @return policy
+	 * @throws IllegalArgumentException
+	 *             in case limit is negative
+	 */
+	public ValidationPolicy withMaxIncluded(int maxIncluded) {
+		ensureNotNegative(maxIncluded, "included count");
+		return new ValidationPolicy(maxDocumentSize, maxIncluded, maxFanOut, maxDepth, maxStringLength);
+	}
+
+	/**
+	 * Returns copy of this policy limiting relationship fan-out.
+	 *
+	 * @param maxFanOut
+	 *            maximum number of linkages of a to-many relationship
+	 * @return policy
+	 * @throws IllegalArgumentException
+	 *             in case limit is negative
+	 */
+	public ValidationPolicy withMaxFanOut(int maxFanOut) {
+		ensureNotNegative(maxFanOut, "relationship fan-out");
+		return new ValidationPolicy(maxDocumentSize, maxIncluded, maxFanOut, maxDepth, maxStringLength);
+	}
+
+	/**
+	 * Returns copy of this policy limiting nesting depth.
+	 *
+	 * @param maxDepth
+	 *            maximum number of nested objects and arrays, the document
+	 *            itself being the first
+	 * @return policy
+	 * @throws IllegalArgumentException
+	 *             in case limit is not positive
+	 */
+	public ValidationPolicy withMaxDepth(int maxDepth) {
+		ensurePositive(maxDepth, "nesting depth");
+		return new ValidationPolicy(maxDocumentSize, maxIncluded, maxFanOut, maxDepth, maxStringLength);
+	}
+
+	/**
+	 * Returns copy of this policy limiting length of strings and member names.
+	 * The exact length is checked once the parser has read and buffered a
+	 * string. JSON streams also reject strings that cannot fit the limit while
+	 * their bytes are read, see {@link ValidatingParser}.
+	 *
+	 * @param maxStringLength
+	 *            maximum number of characters
+	 * @return policy
+	 * @throws IllegalArgumentException
+	 *             in case limit is not positive
+	 */
+	public ValidationPolicy withMaxStringLength(int maxStringLength) {
+		ensurePositive(maxStringLength, "string length");
+		return new ValidationPolicy(maxDocumentSize, maxIncluded, maxFanOut, maxDepth, maxStringLength);
+	}
+
+	private static void ensurePositive(long limit, String name) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("Maximum " + name + " must be positive!");
+		}
+	}
+
+	private static void ensureNotNegative(long limit, String name) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Maximum " + name + " must not be negative!");
+		}
+	}
+
+	long getMaxDocumentSize() {
+		return maxDocumentSize;
+	}
+
+	int getMaxIncluded() {
+		return maxIncluded;
+	}
+
+	int getMaxFanOut() {
+		return maxFanOut;
+	}
+
+	int getMaxDepth() {
+		return maxDepth;
+	}
+
+	int getMaxStringLength() {
+		return maxStringLength;
+	}
+
+	/**
+	 * @return <code>true</code> in case tokens have to be checked while parsing
+	 */
+	boolean limitsTokens() {
+		return maxDepth != Integer.MAX_VALUE || maxStringLength != Integer.MAX_VALUE;
+	}
+}
@@ -1,7 +1,12 @@
 package com.github.ashim.json.parser;
 
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.github.ashim.json.common.Constants;
 import com.github.ashim.json.error.ErrorUtils;
 import com.github.ashim.json.exception.ResourceParseException;
@@ -73,6 +78,24 @@ public class ValidationUtils {
 		}
 	}
 
+	/**
+	 * Ensures that the 'errors' member provided parser is positioned at is
+	 * <code>null</code>. Otherwise errors are bound straight from the token
+	 * stream and thrown, the rest of the document is never read.
+	 *
+	 * @param parser
+	 *            parser positioned at the first token of the member's value
+	 * @param errorsReader
+	 *            reader of the 'errors' member
+	 * @throws ResourceParseException
+	 * @throws IOException
+	 */
+	static void ensureNotError(JsonParser parser, ObjectReader errorsReader) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.VALUE_NULL) {
+			throw new ResourceParseException(ErrorUtils.readErrors(parser, errorsReader));
+		}
+	}
+
 	private static JsonNode ensureDataNode(JsonNode resource) {
 		JsonNode dataNode = resource.get(Constants.DATA);
 
@@ -1,15 +1,65 @@
 package com.github.ashim.json;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.github.ashim.json.codec.ResourceCodec;
 import com.github.ashim.json.common.Utility;
+import com.github.ashim.json.error.Error;
+import com.github.ashim.json.exception.ResourceParseException;
+import com.github.ashim.json.exception.ValidationException;
+import com.github.ashim.json.metrics.DefaultResolverMetrics;
+import com.github.ashim.json.metrics.ResolverMetrics.Phase;
+import com.github.ashim.json.model.Comment;
+import com.github.ashim.json.model.Group;
+import com.github.ashim.json.model.Post;
 import com.github.ashim.json.model.Role;
 import com.github.ashim.json.model.User;
+import com.github.ashim.json.parser.DataFormat;
+import com.github.ashim.json.parser.FieldSet;
+import com.github.ashim.json.parser.FragmentCache;
+import com.github.ashim.json.parser.IdentityMap;
+import com.github.ashim.json.parser.Include;
+import com.github.ashim.json.parser.JsonApiFeeder;
+import com.github.ashim.json.parser.JsonApiModule;
 import com.github.ashim.json.parser.ResourceResolver;
+import com.github.ashim.json.parser.ValidationPolicy;
 
 /**
  * Testing functionality of JSON API converter.
@@ -95,4 +145,831 @@ public class ResourceResolverTest {
 		String json = resolver.writeJson(user);
 		System.out.println(json);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testStreamCollectionObject() {
+
+		String jsonResponse = Utility.getJsonAsString("users.json");
+
+		try (Stream<User> stream = resolver.streamJsonCollection(new ByteArrayInputStream(jsonResponse.getBytes()),
+				User.class)) {
+			List<User> users = stream.collect(Collectors.toList());
+
+			assertEquals(2, users.size());
+			assertEquals("ashish", users.get(1).getName());
+			System.out.println(users);
+		}
+	}
+
+	@Test
+	public void testStreamCollectionObjectWithIncluded() {
+
+		String jsonResponse = Utility.getJsonAsString("users-included.json");
+
+		try (Stream<User> stream = resolver.streamJsonCollection(new ByteArrayInputStream(jsonResponse.getBytes()),
+				User.class)) {
+			List<User> users = stream.collect(Collectors.toList());
+
+			assertEquals(2, users.size());
+			assertEquals("ADMIN", users.get(0).getRoles().get(0).getTitle());
+			assertEquals(users.get(0).getRoles().get(1), users.get(1).getRoles().get(0));
+			System.out.println(users);
+		}
+
+		// References missing from the index are not added to it while streaming
+		Role role = new Role();
+		role.setId(7);
+		User first = new User();
+		first.setId(1);
+		first.setRoles(Stream.of(role).collect(Collectors.toList()));
+		User second = new User();
+		second.setId(2);
+		second.setRoles(Stream.of(role).collect(Collectors.toList()));
+
+		byte[] json = resolver.writeJsonCollection(Arrays.asList(first, second)).getBytes();
+
+		try (Stream<User> stream = resolver.streamJsonCollection(new ByteArrayInputStream(json), User.class)) {
+			List<User> users = stream.collect(Collectors.toList());
+
+			assertFalse(users.get(0).getRoles().get(0) == users.get(1).getRoles().get(0));
+			assertEquals(Integer.valueOf(7), users.get(1).getRoles().get(0).getId());
+		}
+	}
+
+	@Test
+	public void testWriteCollectionObjectToStream() throws UnsupportedEncodingException {
+
+		String jsonResponse = Utility.getJsonAsString("users.json");
+		List<User> users = resolver.readJsonCollection(jsonResponse.getBytes(), User.class);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		resolver.writeJsonCollection(users, output);
+
+		String json = output.toString("UTF-8");
+		assertEquals(resolver.writeJsonCollection(users), json);
+		System.out.println(json);
+	}
+
+	@Test
+	public void testWriteObjectWithRelationshipToStream() throws UnsupportedEncodingException {
+
+		String jsonResponse = Utility.getJsonAsString("user-relationship.json");
+		User user = resolver.readJson(jsonResponse.getBytes(), User.class);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		resolver.writeJson(user, output);
+
+		String json = output.toString("UTF-8");
+		assertEquals(resolver.writeJson(user), json);
+		System.out.println(json);
+	}
+
+	@Test
+	public void testResolversAreIsolated() {
+
+		ResourceResolver userResolver = new ResourceResolver(User.class);
+
+		assertTrue(resolver.isRegisteredType(Role.class));
+		assertFalse(userResolver.isRegisteredType(Role.class));
+
+		String jsonResponse = Utility.getJsonAsString("user.json");
+		User user = userResolver.readJson(jsonResponse.getBytes(), User.class);
+
+		assertEquals(resolver.writeJson(user), userResolver.writeJson(user));
+	}
+
+	@Test
+	public void testReadObjectWithIncluded() {
+
+		String jsonResponse = Utility.getJsonAsString("user-included.json");
+		User user = resolver.readJson(jsonResponse.getBytes(), User.class);
+
+		Role role = user.getRoles().get(0);
+		assertEquals("ADMIN", role.getTitle());
+		assertEquals(Integer.valueOf(1), role.getUser().getId());
+		System.out.println(user);
+	}
+
+	@Test
+	public void testWriteObjectSkipsIdAndRelationshipAttributes() {
+
+		String jsonResponse = Utility.getJsonAsString("user-relationship.json");
+		User user = resolver.readJson(jsonResponse.getBytes(), User.class);
+
+		assertEquals("{\"data\":{\"type\":\"users\",\"id\":\"1\",\"attributes\":{\"name\":\"ashim\"},"
+				+ "\"relationships\":{\"roles\":{\"data\":[{\"type\":\"roles\",\"id\":\"1\"},"
+				+ "{\"type\":\"roles\",\"id\":\"2\"}]}}}}", resolver.writeJson(user));
+	}
+
+	@Test
+	public void testModuleReadObjectWithRelationship() throws IOException {
+
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.registerModule(new JsonApiModule(User.class, Role.class));
+
+		String jsonResponse = Utility.getJsonAsString("user-included.json");
+		User user = mapper.readValue(jsonResponse.getBytes(), User.class);
+
+		assertEquals("ADMIN", user.getRoles().get(0).getTitle());
+		assertEquals(resolver.writeJson(user), mapper.writeValueAsString(user));
+		System.out.println(user);
+
+		try {
+			mapper.readValue("[]", User.class);
+			fail("Array was read as resource");
+		} catch (MismatchedInputException e) {
+			assertEquals(User.class, e.getTargetType());
+		}
+	}
+
+	@Test
+	public void testModuleReadCollectionObject() throws IOException {
+
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.registerModule(new JsonApiModule(User.class, Role.class));
+
+		String jsonResponse = Utility.getJsonAsString("users-included.json");
+		List<User> users = mapper.readValue(jsonResponse.getBytes(), new TypeReference<List<User>>() {
+		});
+
+		assertEquals(2, users.size());
+		assertEquals(users.get(0).getRoles().get(1), users.get(1).getRoles().get(0));
+		assertEquals(resolver.writeJsonCollection(users),
+				mapper.writerFor(new TypeReference<List<User>>() {
+				}).writeValueAsString(users));
+		System.out.println(users);
+	}
+
+	@Test
+	public void testWriteCollectionObjectWithSharedIncluded() {
+
+		ResourceResolver groupResolver = new ResourceResolver(Group.class, Role.class, User.class);
+
+		Role admin = new Role();
+		admin.setId(1);
+		admin.setTitle("ADMIN");
+		Role adminCopy = new Role();
+		adminCopy.setId(1);
+		adminCopy.setTitle("ADMIN");
+		Role user = new Role();
+		user.setId(2);
+		user.setTitle("USER");
+
+		Group first = new Group();
+		first.setId(1);
+		first.setName("owners");
+		first.setRoles(Stream.of(admin).collect(Collectors.toList()));
+		Group second = new Group();
+		second.setId(2);
+		second.setName("members");
+		second.setRoles(Stream.of(admin, adminCopy, user).collect(Collectors.toList()));
+
+		String json = groupResolver.writeJsonCollection(Stream.of(first, second).collect(Collectors.toList()));
+
+		assertTrue(json.endsWith("\"included\":[{\"type\":\"roles\",\"id\":\"1\",\"attributes\":{\"title\":\"ADMIN\"}},"
+				+ "{\"type\":\"roles\",\"id\":\"2\",\"attributes\":{\"title\":\"USER\"}}]}"));
+
+		List<Group> groups = groupResolver.readJsonCollection(json.getBytes(), Group.class);
+		assertEquals("USER", groups.get(1).getRoles().get(2).getTitle());
+		System.out.println(json);
+	}
+
+	@Test
+	public void testWriteCollectionObjectInParallel() throws UnsupportedEncodingException {
+
+		ResourceResolver groupResolver = new ResourceResolver(Group.class, Role.class, User.class);
+
+		List<Group> groups = new ArrayList<>();
+		for (int i = 1; i <= 2000; i++) {
+			Role role = new Role();
+			role.setId(i % 10);
+			role.setTitle("ROLE" + i % 10);
+
+			Group group = new Group();
+			group.setId(i);
+			group.setName("group" + i);
+			group.setRoles(Stream.of(role).collect(Collectors.toList()));
+			groups.add(group);
+		}
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		groupResolver.writeJsonCollection(groups, output, ForkJoinPool.commonPool());
+
+		assertEquals(groupResolver.writeJsonCollection(groups), output.toString("UTF-8"));
+
+		output.reset();
+		groupResolver.writeJsonCollection(new ArrayList<Group>(), output, ForkJoinPool.commonPool());
+
+		assertEquals(groupResolver.writeJsonCollection(new ArrayList<Group>()), output.toString("UTF-8"));
+
+		output.reset();
+		groupResolver.writeJsonCollection(groups, output, ForkJoinPool.commonPool(), Include.parse(""),
+				FieldSet.of("groups", "name"));
+
+		assertEquals(groupResolver.writeJsonCollection(groups, Include.parse(""), FieldSet.of("groups", "name")),
+				output.toString("UTF-8"));
+
+		ResourceResolver indentingResolver = new ResourceResolver(
+				new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT), Group.class, Role.class, User.class);
+
+		output.reset();
+		indentingResolver.writeJsonCollection(groups, output, ForkJoinPool.commonPool());
+
+		assertEquals(indentingResolver.writeJsonCollection(groups), output.toString("UTF-8"));
+	}
+
+	@Test
+	public void testReadCollectionObjectInParallel() {
+
+		ResourceResolver groupResolver = new ResourceResolver(Group.class, Role.class, User.class);
+
+		List<Group> groups = new ArrayList<>();
+		for (int i = 1; i <= 2000; i++) {
+			Role role = new Role();
+			role.setId(i % 10);
+			role.setTitle("ROLE" + i % 10);
+
+			Group group = new Group();
+			group.setId(i);
+			group.setName("group" + i);
+			group.setRoles(Stream.of(role).collect(Collectors.toList()));
+			groups.add(group);
+		}
+
+		byte[] json = groupResolver.writeJsonCollection(groups).getBytes();
+		List<Group> result = groupResolver.readJsonCollection(json, Group.class, ForkJoinPool.commonPool());
+
+		assertEquals(groupResolver.readJsonCollection(json, Group.class).toString(), result.toString());
+		assertTrue(result.get(0).getRoles().get(0) == result.get(10).getRoles().get(0));
+
+		String jsonResponse = Utility.getJsonAsString("users-included.json");
+		List<User> users = resolver.readJsonCollection(jsonResponse.getBytes(), User.class,
+				ForkJoinPool.commonPool());
+
+		assertEquals(users.get(0).getRoles().get(1), users.get(1).getRoles().get(0));
+
+		// Linkages missing from the frozen included index are shared within a
+		// chunk only
+		List<User> linked = new ArrayList<>();
+		for (int i = 1; i <= 1000; i++) {
+			Role role = new Role();
+			role.setId(7);
+
+			User user = new User();
+			user.setId(i);
+			user.setRoles(Stream.of(role).collect(Collectors.toList()));
+			linked.add(user);
+		}
+
+		users = resolver.readJsonCollection(resolver.writeJsonCollection(linked).getBytes(), User.class,
+				ForkJoinPool.commonPool());
+
+		assertSame(users.get(0).getRoles().get(0), users.get(1).getRoles().get(0));
+		assertFalse(users.get(0).getRoles().get(0) == users.get(999).getRoles().get(0));
+		assertEquals(Integer.valueOf(7), users.get(999).getRoles().get(0).getId());
+	}
+
+	@Test
+	public void testReadLazyRelationship() {
+
+		ResourceResolver groupResolver = new ResourceResolver(Group.class, Role.class, User.class);
+
+		String json = "{\"data\":[{\"type\":\"groups\",\"id\":\"1\",\"attributes\":{\"name\":\"owners\"},"
+				+ "\"relationships\":{\"roles\":{\"data\":[{\"type\":\"roles\",\"id\":\"1\"},"
+				+ "{\"type\":\"roles\",\"id\":\"3\"}]}}}],"
+				+ "\"included\":[{\"type\":\"roles\",\"id\":\"1\",\"attributes\":{\"title\":\"ADMIN\"}}]}";
+
+		List<Group> groups = groupResolver.readJsonCollection(json.getBytes(), Group.class);
+		List<Role> roles = groups.get(0).getRoles();
+
+		assertFalse(roles instanceof ArrayList);
+		assertEquals(2, roles.size());
+		assertEquals("ADMIN", roles.get(0).getTitle());
+		assertEquals(Integer.valueOf(3), roles.get(1).getId());
+		System.out.println(groups);
+
+		// Linkages are resolved on first access only, and only once
+		DefaultResolverMetrics metrics = new DefaultResolverMetrics();
+		groupResolver.setMetrics(metrics);
+
+		List<Role> lazyRoles = groupResolver.readJsonCollection(json.getBytes(), Group.class).get(0).getRoles();
+		assertEquals(0, metrics.getRelationshipLookups());
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<Role>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+
+				return lazyRoles.get(0);
+			}));
+		}
+
+		start.countDown();
+		for (CompletableFuture<Role> future : futures) {
+			assertSame(lazyRoles.get(0), future.join());
+		}
+
+		assertEquals("ADMIN", lazyRoles.get(0).getTitle());
+		assertEquals(2, metrics.getRelationshipLookups());
+	}
+
+	@Test
+	public void testSparseFieldSet() {
+
+		String jsonResponse = Utility.getJsonAsString("user-relationship.json");
+		User user = resolver.readJson(jsonResponse.getBytes(), User.class, FieldSet.of("users", "roles"));
+
+		assertEquals(null, user.getName());
+		assertEquals(2, user.getRoles().size());
+
+		user = resolver.readJson(jsonResponse.getBytes(), User.class);
+
+		assertEquals("{\"data\":{\"type\":\"users\",\"id\":\"1\",\"attributes\":{\"name\":\"ashim\"}}}",
+				resolver.writeJson(user, FieldSet.parse(Collections.singletonMap("fields[users]", "name"))));
+		assertEquals("{\"data\":{\"type\":\"users\",\"id\":\"1\",\"attributes\":{},"
+				+ "\"relationships\":{\"roles\":{\"data\":[{\"type\":\"roles\",\"id\":\"1\"},"
+				+ "{\"type\":\"roles\",\"id\":\"2\"}]}}}}", resolver.writeJson(user, FieldSet.of("users", "roles")));
+		assertEquals(resolver.writeJson(user), resolver.writeJson(user, FieldSet.of("roles", "title")));
+	}
+
+	@Test
+	public void testWriteObjectWithIncludePaths() {
+
+		User first = new User();
+		first.setId(1);
+		first.setName("ashim");
+		User second = new User();
+		second.setId(2);
+		second.setName("ashish");
+
+		Role admin = new Role();
+		admin.setId(1);
+		admin.setTitle("ADMIN");
+		admin.setUser(first);
+		Role user = new Role();
+		user.setId(2);
+		user.setTitle("USER");
+		user.setUser(second);
+
+		first.setRoles(Stream.of(admin, user).collect(Collectors.toList()));
+		second.setRoles(Stream.of(user).collect(Collectors.toList()));
+
+		String json = resolver.writeJson(first, Include.parse("roles.users.roles"), FieldSet.ALL);
+		String included = json.substring(json.indexOf("\"included\""));
+
+		assertEquals(2, included.split("\"attributes\":\\{\"title\"").length - 1);
+		assertEquals(1, included.split("\"attributes\":\\{\"name\":\"ashish\"").length - 1);
+		assertFalse(included.contains("\"name\":\"ashim\""));
+
+		json = resolver.writeJson(first, Include.parse("roles.users.roles").withMaxDepth(1), FieldSet.ALL);
+
+		assertFalse(json.contains("\"name\":\"ashish\""));
+		assertFalse(resolver.writeJson(first).contains("\"included\""));
+
+		// Primary resources collected as included by an earlier one are dropped
+		User secondCopy = new User();
+		secondCopy.setId(2);
+		secondCopy.setName("ashish");
+
+		json = resolver.writeJsonCollection(Arrays.asList(first, second, secondCopy), Include.parse("roles.users"),
+				FieldSet.ALL);
+		included = json.substring(json.indexOf("\"included\""));
+
+		assertEquals(2, included.split("\"attributes\":\\{\"title\"").length - 1);
+		assertFalse(included.contains("\"attributes\":{\"name\""));
+		System.out.println(json);
+	}
+
+	@Test
+	public void testFeedCollectionObject() {
+
+		byte[] jsonResponse = Utility.getJsonAsString("users-included.json").getBytes();
+		List<User> users = new ArrayList<>();
+		JsonApiFeeder<User> feeder = resolver.createFeeder(User.class, users::add);
+
+		ByteBuffer chunk = ByteBuffer.allocateDirect(7);
+		for (int offset = 0; offset < jsonResponse.length; offset += chunk.capacity()) {
+			chunk.clear();
+			chunk.put(jsonResponse, offset, Math.min(chunk.capacity(), jsonResponse.length - offset));
+			chunk.flip();
+			feeder.feed(chunk);
+		}
+
+		// Included precedes data, elements are handed over as they arrive
+		assertEquals(2, users.size());
+		feeder.end();
+
+		assertEquals(resolver.readJsonCollection(jsonResponse, User.class).toString(), users.toString());
+		assertEquals(users.get(0).getRoles().get(1), users.get(1).getRoles().get(0));
+
+		users.clear();
+		jsonResponse = Utility.getJsonAsString("users.json").getBytes();
+		feeder = resolver.createFeeder(User.class, users::add);
+		feeder.feed(ByteBuffer.wrap(jsonResponse));
+		feeder.end();
+
+		assertEquals(resolver.readJsonCollection(jsonResponse, User.class).toString(), users.toString());
+	}
+
+	@Test
+	public void testReadFromBufferStreamAndFile() throws IOException {
+
+		byte[] jsonResponse = Utility.getJsonAsString("users-included.json").getBytes();
+		String expected = resolver.readJsonCollection(jsonResponse, User.class).toString();
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(jsonResponse.length);
+		buffer.put(jsonResponse).flip();
+
+		assertEquals(expected, resolver.readJsonCollection(buffer, User.class).toString());
+		assertEquals(expected, resolver.readJsonCollection(ByteBuffer.wrap(jsonResponse), User.class).toString());
+		assertEquals(expected,
+				resolver.readJsonCollection(new ByteArrayInputStream(jsonResponse), User.class).toString());
+
+		Path file = Files.createTempFile("users", ".json");
+		try {
+			Files.write(file, jsonResponse);
+			assertEquals(expected, resolver.readJsonCollection(file, User.class).toString());
+
+			Files.write(file, Utility.getJsonAsString("user-included.json").getBytes());
+			assertEquals("ADMIN", resolver.readJson(file, User.class).getRoles().get(0).getTitle());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testMetrics() throws JMException {
+
+		byte[] jsonResponse = Utility.getJsonAsString("users-included.json").getBytes();
+		DefaultResolverMetrics metrics = new DefaultResolverMetrics();
+		resolver.setMetrics(metrics);
+
+		List<User> users = resolver.readJsonCollection(jsonResponse, User.class);
+		resolver.writeJsonCollection(users);
+
+		assertEquals(2, metrics.getResources());
+		assertEquals(2, metrics.getIncludedResources());
+		assertEquals(3, metrics.getRelationshipLookups());
+		assertEquals(3, metrics.getCacheHits());
+		assertEquals(0, metrics.getCacheMisses());
+		assertEquals(1, metrics.getCount(Phase.READ));
+		assertEquals(1, metrics.getCount(Phase.INCLUDED));
+		assertEquals(4, metrics.getCount(Phase.ATTRIBUTES));
+		assertEquals(1, metrics.getCount(Phase.WRITE));
+		assertTrue(metrics.getPercentileNanos(Phase.READ, 99) > 0);
+
+		metrics.register("test");
+		try {
+			ObjectName name = new ObjectName("com.github.ashim.json:type=ResolverMetrics,name=\"test\"");
+			assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Resources"));
+		} finally {
+			metrics.unregister();
+		}
+
+		resolver.setMetrics(null);
+		resolver.readJsonCollection(jsonResponse, User.class);
+		assertEquals(2, metrics.getResources());
+	}
+
+	@Test
+	public void testLongIdAndToOneRelationship() {
+
+		ResourceResolver commentResolver = new ResourceResolver(Comment.class, Post.class, User.class, Role.class);
+
+		User author = new User();
+		author.setId(7);
+		author.setName("ashim");
+
+		Comment comment = new Comment();
+		comment.setId(5000000000L);
+		comment.setBody("first");
+		comment.setAuthor(author);
+
+		String json = commentResolver.writeJson(comment);
+		assertTrue(json.contains("\"id\":\"5000000000\""));
+		assertTrue(json.contains("\"author\":{\"data\":{\"type\":\"users\",\"id\":\"7\"}}"));
+
+		Comment result = commentResolver.readJson(json.getBytes(), Comment.class);
+		assertEquals(5000000000L, result.getId());
+		assertEquals("ashim", result.getAuthor().getName());
+
+		// Comment opts in to primitive id of 0 being unset, new resources are
+		// written without id
+		Comment draft = new Comment();
+		draft.setBody("draft");
+		Comment otherDraft = new Comment();
+		otherDraft.setBody("other draft");
+
+		json = commentResolver.writeJsonCollection(Arrays.asList(draft, otherDraft));
+		assertEquals("{\"data\":[{\"type\":\"comments\",\"attributes\":{\"body\":\"draft\"}},"
+				+ "{\"type\":\"comments\",\"attributes\":{\"body\":\"other draft\"}}]}", json);
+	}
+
+	@Test
+	public void testZeroId() {
+
+		ResourceResolver commentResolver = new ResourceResolver(Comment.class, Post.class, User.class, Role.class);
+
+		Post post = new Post();
+		post.setTitle("first");
+
+		assertEquals("{\"data\":{\"type\":\"posts\",\"id\":\"0\",\"attributes\":{\"title\":\"first\"}}}",
+				commentResolver.writeJson(post));
+
+		Comment draft = new Comment();
+		draft.setBody("draft");
+		draft.setPost(post);
+
+		// Linkages carry the id, even of resources treating 0 as unset
+		String json = commentResolver.writeJson(draft);
+		assertTrue(json.contains("\"post\":{\"data\":{\"type\":\"posts\",\"id\":\"0\"}}"));
+
+		Comment result = commentResolver.readJson(json.getBytes(), Comment.class);
+		assertEquals(0, result.getPost().getId());
+		assertEquals(0, result.getId());
+
+		json = json.replace("\"type\":\"comments\"", "\"type\":\"comments\",\"id\":\"-42\"");
+		assertEquals(-42, commentResolver.readJson(json.getBytes(), Comment.class).getId());
+
+		// Non-canonical numbers are read through the String path
+		Post read = commentResolver.readJson("{\"data\":{\"type\":\"posts\",\"id\":7}}".getBytes(), Post.class);
+		assertEquals(7, read.getId());
+		read = commentResolver.readJson("{\"data\":{\"type\":\"posts\",\"id\":\"007\"}}".getBytes(), Post.class);
+		assertEquals(7, read.getId());
+	}
+
+	@Test
+	public void testReadIntoExistingInstances() {
+
+		String jsonResponse = Utility.getJsonAsString("users-included.json");
+		IdentityMap identities = new IdentityMap();
+
+		List<User> users = resolver.readJsonCollectionInto(jsonResponse.getBytes(), User.class, identities);
+		assertEquals(4, identities.size());
+
+		List<User> updated = resolver.readJsonCollectionInto(
+				jsonResponse.replace("\"ashish\"", "\"anish\"").getBytes(), User.class, identities);
+
+		assertSame(users.get(0), updated.get(0));
+		assertSame(users.get(1), updated.get(1));
+		assertSame(users.get(0).getRoles().get(1), updated.get(1).getRoles().get(0));
+		assertEquals("anish", users.get(1).getName());
+		assertEquals(4, identities.size());
+
+		User user = new User();
+		assertSame(user, resolver.readJsonInto(Utility.getJsonAsString("user.json").getBytes(), user));
+		assertEquals(resolver.readJson(Utility.getJsonAsString("user.json").getBytes(), User.class).toString(),
+				user.toString());
+	}
+
+	@Test
+	public void testReadErrorDocument() {
+
+		// Rest of the document is never read once errors are bound
+		String jsonResponse = "{\"errors\":[{\"status\":\"422\",\"title\":\"Invalid name\","
+				+ "\"source\":{\"pointer\":\"/data/attributes/name\"},\"unknown\":1}],\"data\":[{";
+
+		try {
+			resolver.readJsonCollection(jsonResponse.getBytes(), User.class);
+			fail("Error document was read");
+		} catch (ResourceParseException e) {
+			Error error = e.getErrorResponse().getErrors().get(0);
+
+			assertEquals("422", error.getStatus());
+			assertEquals("Invalid name", error.getTitle());
+			assertEquals("/data/attributes/name", error.getSource().getPointer());
+		}
+
+		JsonApiFeeder<User> feeder = resolver.createFeeder(User.class, user -> fail("Element was read"));
+
+		try {
+			feeder.feed(ByteBuffer.wrap(jsonResponse.getBytes()));
+			fail("Error document was read");
+		} catch (ResourceParseException e) {
+			assertEquals(1, e.getErrorResponse().getErrors().size());
+		}
+	}
+
+	@Test
+	public void testValidationPolicy() {
+
+		byte[] jsonResponse = Utility.getJsonAsString("users-included.json").getBytes();
+
+		resolver.setValidationPolicy(ValidationPolicy.NONE.withMaxIncluded(2).withMaxFanOut(2).withMaxDepth(7));
+		assertEquals(2, resolver.readJsonCollection(jsonResponse, User.class).size());
+
+		assertViolation(ValidationPolicy.NONE.withMaxIncluded(1), jsonResponse, "'included' exceeds");
+		assertViolation(ValidationPolicy.NONE.withMaxFanOut(1), jsonResponse, "fan-out");
+
+		// Fan-out is counted while linkages are read, the rest is never parsed
+		assertViolation(ValidationPolicy.NONE.withMaxFanOut(1),
+				("{\"included\":[],\"data\":[{\"type\":\"users\",\"id\":\"1\",\"relationships\":{\"roles\":{\"data\":["
+						+ "{\"type\":\"roles\",\"id\":\"1\"},{\"type\":\"roles\",\"id\":\"2\"},").getBytes(),
+				"fan-out");
+		assertViolation(ValidationPolicy.NONE.withMaxDepth(6), jsonResponse, "nesting depth");
+		assertViolation(ValidationPolicy.NONE.withMaxStringLength(5), jsonResponse, "String exceeds");
+
+		// Violations report the offset they were detected at: nothing is read
+		// of documents of known size, streams fail after the read crossing
+		// the limit
+		resolver.setValidationPolicy(ValidationPolicy.NONE.withMaxDocumentSize(100));
+		try {
+			resolver.readJsonCollection(jsonResponse, User.class);
+			fail("Document was read");
+		} catch (ValidationException e) {
+			assertEquals(0, e.getByteOffset());
+		}
+
+		try {
+			resolver.readJsonCollection(new ByteArrayInputStream(jsonResponse), User.class);
+			fail("Document was read");
+		} catch (ValidationException e) {
+			assertEquals(jsonResponse.length, e.getByteOffset());
+		}
+
+		JsonApiFeeder<User> feeder = resolver.createFeeder(User.class, users -> {
+		});
+		feeder.feed(jsonResponse, 0, 60);
+		try {
+			feeder.feed(jsonResponse, 60, jsonResponse.length - 60);
+			fail("Document was read");
+		} catch (ValidationException e) {
+			assertEquals(60, e.getByteOffset());
+		}
+
+		// Strings of JSON streams fail while they are read, not once buffered
+		byte[] name = new byte[1 << 20];
+		Arrays.fill(name, (byte) 'a');
+		ByteArrayOutputStream document = new ByteArrayOutputStream();
+		document.write("{\"data\":{\"type\":\"users\",\"id\":\"1\",\"attributes\":{\"name\":\"".getBytes(), 0, 55);
+		document.write(name, 0, name.length);
+
+		resolver.setValidationPolicy(ValidationPolicy.NONE.withMaxStringLength(5));
+		try {
+			resolver.readJson(new ByteArrayInputStream(document.toByteArray()), User.class);
+			fail("Document was read");
+		} catch (ValidationException e) {
+			assertTrue(e.getMessage().contains("String exceeds"));
+			assertEquals(55 + 5 * 6, e.getByteOffset());
+		}
+	}
+
+	@Test
+	public void testFromIndex() throws IOException {
+
+		Path root = Files.createTempDirectory("index");
+		Path index = root.resolve(ResourceCodec.INDEX);
+		Files.createDirectories(index.getParent());
+		Files.write(index, ("# test index\n" + User.class.getName() + "\n" + Role.class.getName() + "\n")
+				.getBytes(StandardCharsets.UTF_8));
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { root.toUri().toURL() },
+				getClass().getClassLoader())) {
+			ResourceResolver indexed = ResourceResolver.fromIndex(null, loader);
+
+			byte[] jsonResponse = Utility.getJsonAsString("user-included.json").getBytes();
+			User user = indexed.readJson(jsonResponse, User.class);
+
+			assertEquals("ashim", user.getName());
+			assertEquals("ADMIN", user.getRoles().get(0).getTitle());
+		} finally {
+			Files.delete(index);
+		}
+
+		try {
+			ResourceResolver.fromIndex(null, new URLClassLoader(new URL[0], null));
+			fail("Resolver was created");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains(ResourceCodec.INDEX));
+		}
+	}
+
+	@Test
+	public void testBinaryFormats() {
+
+		byte[] jsonResponse = Utility.getJsonAsString("users-included.json").getBytes();
+		List<User> users = resolver.readJsonCollection(jsonResponse, User.class);
+
+		ByteArrayOutputStream json = new ByteArrayOutputStream();
+		resolver.writeJsonCollection(users, json);
+
+		for (DataFormat format : new DataFormat[] { DataFormat.SMILE, DataFormat.CBOR }) {
+			ResourceResolver binary = new ResourceResolver(format.createMapper(), User.class, Role.class);
+
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			binary.writeJsonCollection(users, output);
+			assertTrue(output.size() < json.size());
+
+			ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+			binary.writeJsonCollection(users, parallel, ForkJoinPool.commonPool());
+			assertTrue(Arrays.equals(output.toByteArray(), parallel.toByteArray()));
+
+			List<User> result = binary.readJsonCollection(output.toByteArray(), User.class);
+
+			assertEquals(resolver.readJsonCollection(json.toByteArray(), User.class).toString(), result.toString());
+			assertEquals(Integer.valueOf(2), result.get(0).getRoles().get(1).getId());
+		}
+	}
+
+	@Test
+	public void testFragmentCache() throws IOException {
+
+		Role admin = new Role();
+		admin.setId(1);
+		admin.setTitle("ADMIN");
+		admin.setVersion(1L);
+
+		Role user = new Role();
+		user.setId(2);
+		user.setTitle("USER");
+
+		List<Role> roles = new ArrayList<>();
+		roles.add(admin);
+		roles.add(user);
+
+		String expected = resolver.writeJsonCollection(roles);
+
+		FragmentCache cache = new FragmentCache(16);
+		resolver.setFragmentCache(cache);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		resolver.writeJsonCollection(roles, output);
+		assertEquals(expected, output.toString("UTF-8"));
+		assertEquals(0, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		output.reset();
+		resolver.writeJsonCollection(roles, output);
+		assertEquals(expected, output.toString("UTF-8"));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.size());
+
+		// Changes without a new version are served from the cache until invalidated
+		admin.setTitle("OWNER");
+		assertTrue(resolver.writeJson(admin).contains("ADMIN"));
+
+		// Keys of other types never collide with the cached resource
+		cache.invalidate("role", "s1");
+		assertEquals(1, cache.size());
+		assertTrue(resolver.writeJson(admin).contains("ADMIN"));
+		assertEquals(1, cache.getMisses());
+
+		cache.invalidate("roles", "1");
+		assertEquals(0, cache.size());
+		assertTrue(resolver.writeJson(admin).contains("OWNER"));
+		assertEquals(2, cache.getMisses());
+
+		// A new version is encoded again and cached in place of the old one
+		admin.setTitle("ROOT");
+		admin.setVersion(2L);
+		assertTrue(resolver.writeJson(admin).contains("ROOT"));
+		assertEquals(3, cache.getMisses());
+		assertEquals(1, cache.size());
+
+		long hits = cache.getHits();
+		assertTrue(resolver.writeJson(admin).contains("ROOT"));
+		assertEquals(hits + 1, cache.getHits());
+
+		// Fieldsets bypass the cache
+		assertFalse(resolver.writeJson(admin, FieldSet.ALL.with("roles", "version")).contains("ROOT"));
+
+		// Fragments are not spliced into generators escaping differently
+		admin.setTitle("\u00c4DMIN");
+		admin.setVersion(3L);
+		resolver.writeJson(admin);
+
+		StringWriter writer = new StringWriter();
+		try (JsonGenerator generator = new ObjectMapper().getFactory().createGenerator(writer)) {
+			generator.enable(JsonGenerator.Feature.ESCAPE_NON_ASCII);
+			resolver.writeJson(admin, generator);
+		}
+
+		String escaped = writer.toString();
+		resolver.setFragmentCache(null);
+		writer = new StringWriter();
+		try (JsonGenerator generator = new ObjectMapper().getFactory().createGenerator(writer)) {
+			generator.enable(JsonGenerator.Feature.ESCAPE_NON_ASCII);
+			resolver.writeJson(admin, generator);
+		}
+
+		assertEquals(writer.toString(), escaped);
+		assertTrue(escaped.contains("\\u00C4DMIN"));
+	}
+
+	private void assertViolation(ValidationPolicy policy, byte[] jsonResponse, String message) {
+		resolver.setValidationPolicy(policy);
+
+		try {
+			resolver.readJsonCollection(jsonResponse, User.class);
+			fail("Document was read");
+		} catch (ValidationException e) {
+			assertTrue(e.getMessage().contains(message));
+			assertTrue(e.getByteOffset() > 0);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.ashim.json.model;
+
+import com.github.ashim.json.annotations.JsonId;
+import com.github.ashim.json.annotations.JsonRelation;
+import com.github.ashim.json.annotations.JsonType;
+
+/**
+ * Comment Model
+ *
+ * @author Ashim Jung Khadka
+ */
+@JsonType("comments")
+public class Comment {
+
+	@JsonId(zeroIsUnset = true)
+	private long id;
+	private String body;
+
+	@JsonRelation(value = "author", included = true)
+	private User author;
+
+	@JsonRelation("post")
+	private Post post;
+
+	public long getId() {
+		return id;
+	}
+
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	public String getBody() {
+		return body;
+	}
+
+	public void setBody(String body) {
+		this.body = body;
+	}
+
+	public User getAuthor() {
+		return author;
+	}
+
+	public void setAuthor(User author) {
+		this.author = author;
+	}
+
+	public Post getPost() {
+		return post;
+	}
+
+	public void setPost(Post post) {
+		this.post = post;
+	}
+
+	@Override
+	public String toString() {
+		return "Comment [id=" + id + ", body=" + body + ", author=" + author + "]";
+	}
+
+}
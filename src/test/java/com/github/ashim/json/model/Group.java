@@ -0,0 +1,53 @@
+package com.github.ashim.json.model;
+
+import java.util.List;
+
+import com.github.ashim.json.annotations.JsonId;
+import com.github.ashim.json.annotations.JsonRelation;
+import com.github.ashim.json.annotations.JsonType;
+
+/**
+ * Group Model
+ *
+ * @author Ashim Jung Khadka
+ */
+@JsonType("groups")
+public class Group {
+
+	@JsonId
+	private Integer id;
+	private String name;
+
+	@JsonRelation(value = "roles", included = true, lazy = true)
+	private List<Role> roles;
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List<Role> getRoles() {
+		return roles;
+	}
+
+	public void setRoles(List<Role> roles) {
+		this.roles = roles;
+	}
+
+	@Override
+	public String toString() {
+		return "Group [id=" + id + ", name=" + name + ", roles=" + roles + "]";
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.github.ashim.json.model;
+
+import com.github.ashim.json.annotations.JsonId;
+import com.github.ashim.json.annotations.JsonType;
+
+/**
+ * Post Model
+ *
+ * @author Ashim Jung Khadka
+ */
+@JsonType("posts")
+public class Post {
+
+	@JsonId
+	private int id;
+	private String title;
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	@Override
+	public String toString() {
+		return "Post [id=" + id + ", title=" + title + "]";
+	}
+
+}
@@ -3,6 +3,7 @@ package com.github.ashim.json.model;
 import com.github.ashim.json.annotations.JsonId;
 import com.github.ashim.json.annotations.JsonRelation;
 import com.github.ashim.json.annotations.JsonType;
+import com.github.ashim.json.annotations.JsonVersion;
 
 /**
  * Role Model
@@ -16,6 +17,9 @@ public class Role {
 	private Integer id;
 	private String title;
 
+	@JsonVersion
+	private Long version;
+
 	@JsonRelation("users")
 	private User user;
 
@@ -35,6 +39,14 @@ public class Role {
 		this.title = title;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public User getUser() {
 		return user;
 	}